@@ -61,6 +61,8 @@ public interface SdpAttribute {
         public String value() {
             return ssrc + " " + attribute + (value != null && !value.isEmpty() ? ":" + value : "");
         }
+        /** The value of the source attribute, e.g. {@code user@host} for {@code a=ssrc:1 cname:user@host}. */
+        public String attributeValue() { return value; }
     }
     
     // Additional common attributes
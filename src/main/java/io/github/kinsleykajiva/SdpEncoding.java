@@ -0,0 +1,31 @@
+package io.github.kinsleykajiva;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Serialized form of one SDP segment (session header or m= block). The UTF-8 bytes are encoded from
+ * the text on first use, so a segment that is only ever printed never holds them.
+ * <p>
+ * The text is final and the bytes are volatile, so an instance can be cached in a plain field and
+ * published through a data race: a thread that sees the reference also sees the completed text,
+ * and a thread that sees the byte array also sees its contents.
+ */
+final class SdpEncoding {
+    final String text;
+    private volatile byte[] utf8;
+
+    SdpEncoding(String text) {
+        this.text = text;
+    }
+
+    /**
+     * The text as UTF-8. Callers must not modify the returned array.
+     */
+    byte[] utf8() {
+        byte[] b = utf8;
+        if (b == null) {
+            utf8 = b = text.getBytes(StandardCharsets.UTF_8);
+        }
+        return b;
+    }
+}
@@ -0,0 +1,26 @@
+package io.github.kinsleykajiva;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalLong;
+
+/**
+ * Result of {@link SdpParser#extract(CharSequence, SdpFieldMask)}. Fields outside the mask, or absent
+ * from the SDP, are empty. ICE, fingerprint and setup values are the first ones in document order,
+ * whether at session or media level.
+ */
+public record SdpExtract(
+    OptionalLong sessionId,
+    OptionalLong sessionVersion,
+    Optional<String> iceUfrag,
+    Optional<String> icePwd,
+    Optional<SdpAttribute.Fingerprint> fingerprint,
+    Optional<String> setup,
+    List<String> mids,
+    List<List<String>> bundleGroups
+) {
+    public SdpExtract {
+        mids = List.copyOf(mids);
+        bundleGroups = List.copyOf(bundleGroups);
+    }
+}
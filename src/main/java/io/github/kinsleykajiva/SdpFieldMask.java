@@ -0,0 +1,80 @@
+package io.github.kinsleykajiva;
+
+import java.util.StringJoiner;
+
+/**
+ * Selects the fields that {@link SdpParser#extract(CharSequence, SdpFieldMask)} should pull out of an SDP.
+ *
+ * <pre>{@code
+ * SdpFieldMask routing = SdpFieldMask.of(Field.ICE_UFRAG, Field.ICE_PWD, Field.BUNDLE_GROUPS);
+ * }</pre>
+ */
+public final class SdpFieldMask {
+
+    public enum Field {
+        /** Session id and version from the o= line. */
+        ORIGIN,
+        ICE_UFRAG,
+        ICE_PWD,
+        FINGERPRINT,
+        SETUP,
+        /** Every a=mid of the media sections, in order. */
+        MIDS,
+        /** The mids of every session-level a=group:BUNDLE line. */
+        BUNDLE_GROUPS
+    }
+
+    private static final Field[] FIELDS = Field.values();
+    private static final SdpFieldMask ALL = new SdpFieldMask((1 << FIELDS.length) - 1);
+
+    private final int bits;
+
+    private SdpFieldMask(int bits) {
+        this.bits = bits;
+    }
+
+    public static SdpFieldMask of(Field... fields) {
+        int bits = 0;
+        for (Field field : fields) bits |= bit(field);
+        return new SdpFieldMask(bits);
+    }
+
+    public static SdpFieldMask all() {
+        return ALL;
+    }
+
+    public SdpFieldMask with(Field field) {
+        return contains(field) ? this : new SdpFieldMask(bits | bit(field));
+    }
+
+    public boolean contains(Field field) {
+        return (bits & bit(field)) != 0;
+    }
+
+    int bits() {
+        return bits;
+    }
+
+    static int bit(Field field) {
+        return 1 << field.ordinal();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof SdpFieldMask other && bits == other.bits;
+    }
+
+    @Override
+    public int hashCode() {
+        return bits;
+    }
+
+    @Override
+    public String toString() {
+        StringJoiner joiner = new StringJoiner(", ", "SdpFieldMask[", "]");
+        for (Field field : FIELDS) {
+            if (contains(field)) joiner.add(field.name());
+        }
+        return joiner.toString();
+    }
+}
@@ -0,0 +1,132 @@
+package io.github.kinsleykajiva;
+
+import java.util.Arrays;
+
+/**
+ * One trimmed SDP line plus the delimiter positions an {@link SdpScanner} found in it.
+ * <p>
+ * {@link #split} mirrors {@code String.split} for the patterns the parser used to pass it
+ * ({@code "\\s+"}, {@code ":"} and {@code "/"}), but walks the pre-computed delimiter positions
+ * instead of running a regex, and returns token bounds rather than substrings so tokens can be
+ * split again without copying. Whitespace means {@code ' '} and {@code '\t'}.
+ */
+final class SdpFields {
+    static final int WHITESPACE = 0;
+    static final int COLON = 1;
+    static final int SLASH = 2;
+
+    private static final int[] NONE = new int[0];
+
+    private String line;
+    private SdpLineIndex index;
+    private int from;
+    private int to;
+    private int offset;
+
+    private int[] scratch = new int[16];
+    private SdpLineIndex own;
+
+    /**
+     * Resets to a stand-alone line, finding its delimiters with a plain loop.
+     */
+    SdpFields reset(String line) {
+        if (own == null) {
+            own = new SdpLineIndex(512);
+        } else {
+            own.clear();
+        }
+        int n = 0;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c < 0x80 && SdpScanner.isDelimiter((byte) c)) {
+                own.addDelimiter(i);
+                n++;
+            }
+        }
+        return reset(line, own, 0, n, 0);
+    }
+
+    /**
+     * @param index  scanned source text, whose delimiters {@code [from, to)} are inside the line
+     * @param offset source position of the first character of {@code line}
+     */
+    SdpFields reset(String line, SdpLineIndex index, int from, int to, int offset) {
+        this.line = line;
+        this.index = index;
+        this.from = from;
+        this.to = to;
+        this.offset = offset;
+        return this;
+    }
+
+    String line() {
+        return line;
+    }
+
+    int length() {
+        return line.length();
+    }
+
+    /**
+     * Splits {@code line[begin, end)} on the given delimiter class.
+     *
+     * @return token bounds as {@code [start0, end0, start1, end1, ...]}
+     */
+    int[] split(int begin, int end, int kind, int limit) {
+        int n = 0;
+        int start = begin;
+        boolean matched = false;
+        for (int d = from; d < to; d++) {
+            int p = index.delimiter(d) - offset;
+            if (p < start) continue;
+            if (p >= end) break;
+            if (!matches(line.charAt(p), kind)) continue;
+            if (limit > 0 && (n >> 1) == limit - 1) break;
+            matched = true;
+            n = add(n, start, p);
+            start = p + 1;
+            if (kind == WHITESPACE) {
+                while (start < end && isWhitespace(line.charAt(start))) start++;
+            }
+        }
+        if (!matched) {
+            return new int[] {begin, end};
+        }
+        n = add(n, start, end);
+        if (limit == 0) {
+            while (n > 0 && scratch[n - 1] == scratch[n - 2]) n -= 2;
+        }
+        return n == 0 ? NONE : Arrays.copyOf(scratch, n);
+    }
+
+    int[] split(int begin, int kind, int limit) {
+        return split(begin, line.length(), kind, limit);
+    }
+
+    static int count(int[] tokens) {
+        return tokens.length >> 1;
+    }
+
+    String token(int[] tokens, int i) {
+        return line.substring(tokens[2 * i], tokens[2 * i + 1]);
+    }
+
+    private int add(int n, int start, int end) {
+        if (n + 2 > scratch.length) scratch = Arrays.copyOf(scratch, scratch.length * 2);
+        scratch[n] = start;
+        scratch[n + 1] = end;
+        return n + 2;
+    }
+
+    private static boolean matches(char c, int kind) {
+        return switch (kind) {
+            case WHITESPACE -> isWhitespace(c);
+            case COLON -> c == ':';
+            default -> c == '/';
+        };
+    }
+
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t';
+    }
+}
@@ -0,0 +1,912 @@
+package io.github.kinsleykajiva;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Dependency-free conversion between SDP and a structured JSON form for signalling payloads.
+ * <p>
+ * The layout is close to sdp-transform's, but keeps attributes as one ordered array so the JSON
+ * converts back to the same {@link SdpSession}:
+ * <pre>{@code
+ * {"version":0,
+ *  "origin":{"username":"-","sessionId":4294967296,"sessionVersion":2,"netType":"IN","addrType":"IP4","address":"127.0.0.1"},
+ *  "name":"-","timing":{"start":0,"stop":0},
+ *  "attributes":[{"name":"group","value":"BUNDLE 0"}],
+ *  "media":[{"type":"audio","port":9,"portCount":1,"protocol":"UDP/TLS/RTP/SAVPF","formats":["111"],
+ *            "connection":{"netType":"IN","addrType":"IP4","address":"0.0.0.0"},
+ *            "attributes":[{"name":"rtpmap","payload":111,"codec":"opus","rate":48000,"encoding":"2"},
+ *                          {"name":"fmtp","payload":111,"config":"minptime=10"},
+ *                          {"name":"candidate","foundation":"1","component":1,"transport":"udp","priority":2122260223,
+ *                           "ip":"192.168.0.1","port":46243,"type":"host","extensions":"generation 0"},
+ *                          {"name":"ssrc","id":1001,"attribute":"cname","value":"x"},
+ *                          {"name":"fingerprint","type":"sha-256","hash":"D1:2C:..."},
+ *                          {"name":"rtcp-mux"}]}]}
+ * }</pre>
+ * Writing goes straight to UTF-8 bytes; {@link #writeJson(CharSequence, OutputStream)} does so from
+ * raw SDP text in a single scan, holding one object at a time rather than a whole {@link SdpSession}.
+ * Keys are never repeated within an object, and {@link #fromJson(CharSequence)} accepts them in any
+ * order.
+ */
+public final class SdpJson {
+
+    private SdpJson() {}
+
+    public static String toJson(SdpSession session) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(1024);
+        try {
+            writeJson(session, out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    public static String toJson(CharSequence sdp) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(sdp.length() * 2);
+        try {
+            writeJson(sdp, out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    public static void writeJson(SdpSession session, OutputStream out) throws IOException {
+        Writer w = new Writer(out);
+        try {
+            w.header(session);
+            session.mediaSections().forEach(w::media);
+            w.finish();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Converts raw SDP text to JSON in a single scan. Only one object is held at a time: the
+     * session-level fields until the first m= line, then each media section, which is written to
+     * {@code out} as soon as it ends.
+     * <p>
+     * The output is the same as {@code writeJson(SdpParser.parse(sdp), out)}, except for lines that
+     * follow a malformed m= line once a media section has been written: {@code parse} adds them to
+     * the session, while here they are skipped along with the malformed section.
+     */
+    public static void writeJson(CharSequence sdp, OutputStream out) throws IOException {
+        Streamer streamer = new Streamer(new Writer(out));
+        try {
+            SdpParser.read(sdp.toString(), streamer);
+            streamer.finish();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    public static SdpSession fromJson(CharSequence json) {
+        return new Reader(json).session();
+    }
+
+    // -------------------------------------------------------------------------
+    // Writing
+    // -------------------------------------------------------------------------
+
+    /**
+     * Collects {@link SdpParser.Handler} events into the object being read and hands it to the
+     * {@link Writer} once complete. Fields are kept with the semantics of
+     * {@link SdpParser.SessionBuilder}: the last value of a single field wins and repeated fields
+     * accumulate, so the lines of an object may come in any order.
+     */
+    private static final class Streamer implements SdpParser.Handler {
+        private final Writer w;
+
+        private boolean headerWritten;
+        private int version;
+        private SdpOrigin origin;
+        private String sessionName = "";
+        private Optional<String> sessionInformation = Optional.empty();
+        private Optional<String> uri = Optional.empty();
+        private final List<String> emails = new ArrayList<>();
+        private final List<String> phones = new ArrayList<>();
+        private Optional<SdpConnection> connection = Optional.empty();
+        private final List<SdpBandwidth> bandwidths = new ArrayList<>();
+        private long startTime;
+        private long stopTime;
+        private final List<SdpAttribute> attributes = new ArrayList<>();
+
+        private String mediaType;
+        private int port;
+        private int portCount;
+        private String protocol;
+        private List<String> formats;
+        private Optional<SdpConnection> mediaConnection;
+        private final List<SdpBandwidth> mediaBandwidths = new ArrayList<>();
+        private final List<SdpAttribute> mediaAttributes = new ArrayList<>();
+
+        Streamer(Writer w) {
+            this.w = w;
+        }
+
+        @Override public void version(int version) { if (!headerWritten) this.version = version; }
+        @Override public void origin(SdpOrigin origin) { if (!headerWritten) this.origin = origin; }
+        @Override public void sessionName(String sessionName) { if (!headerWritten) this.sessionName = sessionName; }
+        @Override public void sessionInformation(String information) { if (!headerWritten) sessionInformation = Optional.of(information); }
+        @Override public void uri(String uri) { if (!headerWritten) this.uri = Optional.of(uri); }
+        @Override public void email(String email) { if (!headerWritten) emails.add(email); }
+        @Override public void phone(String phone) { if (!headerWritten) phones.add(phone); }
+
+        @Override
+        public void timing(long startTime, long stopTime) {
+            if (headerWritten) return;
+            this.startTime = startTime;
+            this.stopTime = stopTime;
+        }
+
+        @Override
+        public void connection(SdpConnection c) {
+            if (c == null) return;
+            if (mediaType != null) {
+                mediaConnection = Optional.of(c);
+            } else if (!headerWritten) {
+                connection = Optional.of(c);
+            }
+        }
+
+        @Override
+        public void bandwidth(SdpBandwidth b) {
+            if (mediaType != null) {
+                mediaBandwidths.add(b);
+            } else if (!headerWritten) {
+                bandwidths.add(b);
+            }
+        }
+
+        @Override
+        public void attribute(SdpAttribute a) {
+            if (mediaType != null) {
+                mediaAttributes.add(a);
+            } else if (!headerWritten) {
+                attributes.add(a);
+            }
+        }
+
+        @Override
+        public void media(String type, int port, int portCount, String protocol, List<String> formats) {
+            writeHeader();
+            this.mediaType = type;
+            this.port = port;
+            this.portCount = portCount;
+            this.protocol = protocol;
+            this.formats = formats;
+            this.mediaConnection = Optional.empty();
+        }
+
+        @Override
+        public void endMedia() {
+            if (mediaType == null) return;
+            w.media(new SdpMedia(mediaType, port, portCount, protocol, formats, mediaConnection,
+                mediaBandwidths, mediaAttributes));
+            mediaType = null;
+            mediaBandwidths.clear();
+            mediaAttributes.clear();
+        }
+
+        void finish() {
+            endMedia();
+            writeHeader();
+            w.finish();
+        }
+
+        /**
+         * Session-level lines after this point can only follow a malformed m= line; they are dropped.
+         */
+        private void writeHeader() {
+            if (headerWritten) return;
+            headerWritten = true;
+            w.header(new SdpSession(version, origin, sessionName, sessionInformation, uri, emails, phones,
+                connection, bandwidths, startTime, stopTime, attributes, List.of()));
+            emails.clear();
+            phones.clear();
+            bandwidths.clear();
+            attributes.clear();
+        }
+    }
+
+    /**
+     * Encodes the session object straight to UTF-8 bytes: first its session-level fields, then one
+     * media section at a time. Each media section is passed on to the output stream once written.
+     */
+    private static final class Writer {
+        private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+
+        private final OutputStream out;
+        private final byte[] buf = new byte[8192];
+        private int pos;
+
+        private boolean inMediaArray;
+
+        Writer(OutputStream out) {
+            this.out = out;
+            raw('{');
+        }
+
+        /**
+         * Writes the session-level fields of {@code s}; must be called once, before any media.
+         */
+        void header(SdpSession s) {
+            key("version", true); number(s.version());
+            if (s.origin() != null) origin(s.origin());
+            field("name", s.sessionName(), false);
+            s.sessionInformation().ifPresent(i -> field("information", i, false));
+            s.uri().ifPresent(u -> field("uri", u, false));
+            if (!s.emails().isEmpty()) strings("emails", s.emails());
+            if (!s.phones().isEmpty()) strings("phones", s.phones());
+            s.connection().ifPresent(this::connection);
+            bandwidths(s.bandwidths());
+            key("timing", false);
+            raw('{');
+            key("start", true); number(s.startTime());
+            key("stop", false); number(s.stopTime());
+            raw('}');
+            attributes(s.sessionAttributes());
+        }
+
+        void media(SdpMedia m) {
+            if (!inMediaArray) {
+                key("media", false);
+                raw('[');
+                inMediaArray = true;
+            } else {
+                raw(',');
+            }
+            raw('{');
+            field("type", m.type(), true);
+            key("port", false); number(m.port());
+            key("portCount", false); number(m.portCount());
+            field("protocol", m.protocol(), false);
+            strings("formats", m.formats());
+            m.connection().ifPresent(this::connection);
+            bandwidths(m.bandwidths());
+            attributes(m.attributes());
+            raw('}');
+            flushBuffer();
+        }
+
+        void finish() {
+            if (inMediaArray) raw(']');
+            raw('}');
+            flushBuffer();
+            try {
+                out.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private void origin(SdpOrigin o) {
+            key("origin", false);
+            raw('{');
+            field("username", o.username(), true);
+            key("sessionId", false); number(o.sessionId());
+            key("sessionVersion", false); number(o.sessionVersion());
+            field("netType", o.netType(), false);
+            field("addrType", o.addrType(), false);
+            field("address", o.unicastAddress(), false);
+            raw('}');
+        }
+
+        private void connection(SdpConnection c) {
+            key("connection", false);
+            raw('{');
+            field("netType", c.netType(), true);
+            field("addrType", c.addrType(), false);
+            field("address", c.address(), false);
+            if (c.ttl().isPresent()) { key("ttl", false); number(c.ttl().get()); }
+            if (c.amount().isPresent()) { key("amount", false); number(c.amount().get()); }
+            raw('}');
+        }
+
+        private void strings(String name, List<String> values) {
+            key(name, false);
+            raw('[');
+            for (int i = 0; i < values.size(); i++) {
+                if (i > 0) raw(',');
+                string(values.get(i));
+            }
+            raw(']');
+        }
+
+        private void bandwidths(List<SdpBandwidth> bandwidths) {
+            if (bandwidths.isEmpty()) return;
+            key("bandwidths", false);
+            raw('[');
+            for (int i = 0; i < bandwidths.size(); i++) {
+                if (i > 0) raw(',');
+                SdpBandwidth b = bandwidths.get(i);
+                raw('{');
+                field("type", b.type(), true);
+                key("value", false); number(b.value());
+                raw('}');
+            }
+            raw(']');
+        }
+
+        private void attributes(List<SdpAttribute> attributes) {
+            if (attributes.isEmpty()) return;
+            key("attributes", false);
+            raw('[');
+            for (int i = 0; i < attributes.size(); i++) {
+                if (i > 0) raw(',');
+                attribute(attributes.get(i));
+            }
+            raw(']');
+        }
+
+        private void attribute(SdpAttribute a) {
+            raw('{');
+            field("name", a.name(), true);
+            switch (a) {
+                case SdpAttribute.Rtpmap r -> {
+                    key("payload", false); number(r.payloadType());
+                    field("codec", r.encodingName(), false);
+                    key("rate", false); number(r.clockRate());
+                    if (r.encodingParameters() != null && !r.encodingParameters().isEmpty()) {
+                        field("encoding", r.encodingParameters(), false);
+                    }
+                }
+                case SdpAttribute.FMTP f -> {
+                    key("payload", false); number(f.payloadType());
+                    field("config", f.formatParameters(), false);
+                }
+                case SdpAttribute.Ssrc s -> {
+                    key("id", false); number(s.ssrc());
+                    field("attribute", s.attribute(), false);
+                    field("value", s.attributeValue() == null ? "" : s.attributeValue(), false);
+                }
+                case SdpAttribute.Fingerprint f -> {
+                    field("type", f.hashAlgorithm(), false);
+                    field("hash", f.fingerprint(), false);
+                }
+                default -> {
+                    if (!"candidate".equals(a.name()) || !candidate(a.value())) {
+                        String value = a.value();
+                        if (value != null && !value.isEmpty()) field("value", value, false);
+                    }
+                }
+            }
+            raw('}');
+        }
+
+        /**
+         * Writes the typed candidate fields, or nothing if {@code value} would not rebuild verbatim.
+         * candidate:&lt;foundation&gt; &lt;component&gt; &lt;transport&gt; &lt;priority&gt; &lt;ip&gt; &lt;port&gt; typ &lt;type&gt; [extensions]
+         */
+        private boolean candidate(String value) {
+            String[] p = value.split(" ", 9);
+            if (p.length < 8 || !p[6].equals("typ")) return false;
+            for (String token : p) if (token.isEmpty()) return false;
+            if (!isDigits(p[1]) || p[1].length() > 9 || !isDigits(p[3]) || p[3].length() > 18
+                || !isDigits(p[5]) || p[5].length() > 9) return false;
+            field("foundation", p[0], false);
+            key("component", false); raw(p[1]);
+            field("transport", p[2], false);
+            key("priority", false); raw(p[3]);
+            field("ip", p[4], false);
+            key("port", false); raw(p[5]);
+            field("type", p[7], false);
+            if (p.length > 8) field("extensions", p[8], false);
+            return true;
+        }
+
+        // -- structure --------------------------------------------------------
+
+        private void key(String name, boolean first) {
+            if (!first) raw(',');
+            raw('"');
+            raw(name);
+            raw('"');
+            raw(':');
+        }
+
+        private void field(String name, String value, boolean first) {
+            key(name, first);
+            string(value);
+        }
+
+        // -- encoding ---------------------------------------------------------
+
+        private void number(long value) {
+            raw(Long.toString(value));
+        }
+
+        private void string(String s) {
+            if (s == null) {
+                raw("null");
+                return;
+            }
+            raw('"');
+            int n = s.length();
+            for (int i = 0; i < n; i++) {
+                char c = s.charAt(i);
+                if (c >= 0x20 && c < 0x80 && c != '"' && c != '\\') {
+                    ensure(1);
+                    buf[pos++] = (byte) c;
+                } else if (c < 0x80) {
+                    escape(c);
+                } else if (c < 0x800) {
+                    ensure(2);
+                    buf[pos++] = (byte) (0xC0 | (c >> 6));
+                    buf[pos++] = (byte) (0x80 | (c & 0x3F));
+                } else if (Character.isHighSurrogate(c) && i + 1 < n && Character.isLowSurrogate(s.charAt(i + 1))) {
+                    int cp = Character.toCodePoint(c, s.charAt(++i));
+                    ensure(4);
+                    buf[pos++] = (byte) (0xF0 | (cp >> 18));
+                    buf[pos++] = (byte) (0x80 | ((cp >> 12) & 0x3F));
+                    buf[pos++] = (byte) (0x80 | ((cp >> 6) & 0x3F));
+                    buf[pos++] = (byte) (0x80 | (cp & 0x3F));
+                } else if (Character.isSurrogate(c)) {
+                    raw("\\u");
+                    hex4(c);
+                } else {
+                    ensure(3);
+                    buf[pos++] = (byte) (0xE0 | (c >> 12));
+                    buf[pos++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                    buf[pos++] = (byte) (0x80 | (c & 0x3F));
+                }
+            }
+            raw('"');
+        }
+
+        private void escape(char c) {
+            switch (c) {
+                case '"' -> raw("\\\"");
+                case '\\' -> raw("\\\\");
+                case '\n' -> raw("\\n");
+                case '\r' -> raw("\\r");
+                case '\t' -> raw("\\t");
+                case '\b' -> raw("\\b");
+                case '\f' -> raw("\\f");
+                default -> {
+                    raw("\\u");
+                    hex4(c);
+                }
+            }
+        }
+
+        private void hex4(char c) {
+            ensure(4);
+            buf[pos++] = HEX[(c >> 12) & 0xF];
+            buf[pos++] = HEX[(c >> 8) & 0xF];
+            buf[pos++] = HEX[(c >> 4) & 0xF];
+            buf[pos++] = HEX[c & 0xF];
+        }
+
+        /** ASCII only: keys, numbers and escape sequences. */
+        private void raw(String ascii) {
+            ensure(ascii.length());
+            for (int i = 0; i < ascii.length(); i++) {
+                buf[pos++] = (byte) ascii.charAt(i);
+            }
+        }
+
+        private void raw(char c) {
+            ensure(1);
+            buf[pos++] = (byte) c;
+        }
+
+        private void ensure(int n) {
+            if (pos + n > buf.length) flushBuffer();
+        }
+
+        private void flushBuffer() {
+            try {
+                out.write(buf, 0, pos);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            pos = 0;
+        }
+
+        /** Canonical non-negative integer, so that it prints back identically. */
+        private static boolean isDigits(String s) {
+            if (s.isEmpty() || (s.length() > 1 && s.charAt(0) == '0')) return false;
+            for (int i = 0; i < s.length(); i++) {
+                char c = s.charAt(i);
+                if (c < '0' || c > '9') return false;
+            }
+            return true;
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // Reading
+    // -------------------------------------------------------------------------
+
+    /**
+     * Pull reader over the JSON text that feeds {@link SdpParser.SessionBuilder} directly; unknown
+     * keys are skipped.
+     */
+    private static final class Reader {
+        private final CharSequence in;
+        private int pos;
+        private final SdpParser.SessionBuilder builder = new SdpParser.SessionBuilder(null);
+
+        Reader(CharSequence in) {
+            this.in = in;
+        }
+
+        SdpSession session() {
+            beginObject();
+            while (hasNextKey()) {
+                switch (nextKey()) {
+                    case "version" -> builder.version(nextInt());
+                    case "origin" -> builder.origin(origin());
+                    case "name" -> builder.sessionName(nextString());
+                    case "information" -> builder.sessionInformation(nextString());
+                    case "uri" -> builder.uri(nextString());
+                    case "emails" -> { beginArray(); while (hasNextElement()) builder.email(nextString()); }
+                    case "phones" -> { beginArray(); while (hasNextElement()) builder.phone(nextString()); }
+                    case "connection" -> builder.connection(connection());
+                    case "bandwidths" -> { beginArray(); while (hasNextElement()) builder.bandwidth(bandwidth()); }
+                    case "timing" -> timing();
+                    case "attributes" -> { beginArray(); while (hasNextElement()) builder.attribute(attribute()); }
+                    case "media" -> { beginArray(); while (hasNextElement()) media(); }
+                    default -> skipValue();
+                }
+            }
+            skipWhitespace();
+            if (pos != in.length()) throw error("Trailing characters");
+            return builder.build();
+        }
+
+        private SdpOrigin origin() {
+            String username = null, netType = null, addrType = null, address = null;
+            long sessionId = 0, sessionVersion = 0;
+            beginObject();
+            while (hasNextKey()) {
+                switch (nextKey()) {
+                    case "username" -> username = nextString();
+                    case "sessionId" -> sessionId = nextLong();
+                    case "sessionVersion" -> sessionVersion = nextLong();
+                    case "netType" -> netType = nextString();
+                    case "addrType" -> addrType = nextString();
+                    case "address" -> address = nextString();
+                    default -> skipValue();
+                }
+            }
+            return new SdpOrigin(username, sessionId, sessionVersion, netType, addrType, address);
+        }
+
+        private SdpConnection connection() {
+            String netType = null, addrType = null, address = null;
+            Optional<Integer> ttl = Optional.empty(), amount = Optional.empty();
+            beginObject();
+            while (hasNextKey()) {
+                switch (nextKey()) {
+                    case "netType" -> netType = nextString();
+                    case "addrType" -> addrType = nextString();
+                    case "address" -> address = nextString();
+                    case "ttl" -> ttl = Optional.of(nextInt());
+                    case "amount" -> amount = Optional.of(nextInt());
+                    default -> skipValue();
+                }
+            }
+            return new SdpConnection(netType, addrType, address, ttl, amount);
+        }
+
+        private SdpBandwidth bandwidth() {
+            String type = null;
+            long value = 0;
+            beginObject();
+            while (hasNextKey()) {
+                switch (nextKey()) {
+                    case "type" -> type = nextString();
+                    case "value" -> value = nextLong();
+                    default -> skipValue();
+                }
+            }
+            return new SdpBandwidth(type, value);
+        }
+
+        private void timing() {
+            long start = 0, stop = 0;
+            beginObject();
+            while (hasNextKey()) {
+                switch (nextKey()) {
+                    case "start" -> start = nextLong();
+                    case "stop" -> stop = nextLong();
+                    default -> skipValue();
+                }
+            }
+            builder.timing(start, stop);
+        }
+
+        /**
+         * Object members are unordered, so the body of the section is collected until the object
+         * closes and only then handed to the builder after the m= line fields.
+         */
+        private void media() {
+            String type = null, protocol = null;
+            int port = -1, portCount = 1;
+            List<String> formats = new ArrayList<>();
+            SdpConnection connection = null;
+            List<SdpBandwidth> bandwidths = new ArrayList<>();
+            List<SdpAttribute> attributes = new ArrayList<>();
+            beginObject();
+            while (hasNextKey()) {
+                switch (nextKey()) {
+                    case "type" -> type = nextString();
+                    case "port" -> port = nextInt();
+                    case "portCount" -> portCount = nextInt();
+                    case "protocol" -> protocol = nextString();
+                    case "formats" -> { beginArray(); while (hasNextElement()) formats.add(nextString()); }
+                    case "connection" -> connection = connection();
+                    case "bandwidths" -> { beginArray(); while (hasNextElement()) bandwidths.add(bandwidth()); }
+                    case "attributes" -> { beginArray(); while (hasNextElement()) attributes.add(attribute()); }
+                    default -> skipValue();
+                }
+            }
+            if (type == null || port < 0 || protocol == null) {
+                throw error("Media section without type, port or protocol");
+            }
+            builder.media(type, port, portCount, protocol, formats);
+            if (connection != null) builder.connection(connection);
+            bandwidths.forEach(builder::bandwidth);
+            attributes.forEach(builder::attribute);
+            builder.endMedia();
+        }
+
+        private SdpAttribute attribute() {
+            String name = null, value = null, codec = null, encoding = "", config = null, attribute = null;
+            String type = null, hash = null, foundation = null, transport = null, ip = null, extensions = null;
+            int payload = -1, rate = 0;
+            long id = -1, component = -1, priority = -1, port = -1;
+            beginObject();
+            while (hasNextKey()) {
+                switch (nextKey()) {
+                    case "name" -> name = nextString();
+                    case "value" -> value = nextString();
+                    case "payload" -> payload = nextInt();
+                    case "codec" -> codec = nextString();
+                    case "rate" -> rate = nextInt();
+                    case "encoding" -> encoding = nextString();
+                    case "config" -> config = nextString();
+                    case "id" -> id = nextLong();
+                    case "attribute" -> attribute = nextString();
+                    case "type" -> type = nextString();
+                    case "hash" -> hash = nextString();
+                    case "foundation" -> foundation = nextString();
+                    case "component" -> component = nextLong();
+                    case "transport" -> transport = nextString();
+                    case "priority" -> priority = nextLong();
+                    case "ip" -> ip = nextString();
+                    case "port" -> port = nextLong();
+                    case "extensions" -> extensions = nextString();
+                    default -> skipValue();
+                }
+            }
+            if (name == null) throw error("Attribute without a name");
+            return switch (name) {
+                case "rtpmap" -> codec != null
+                    ? new SdpAttribute.Rtpmap(payload, codec, rate, encoding)
+                    : generic(name, value);
+                case "fmtp" -> config != null ? new SdpAttribute.FMTP(payload, config) : generic(name, value);
+                case "ssrc" -> id >= 0
+                    ? new SdpAttribute.Ssrc(id, attribute == null ? "" : attribute, value == null ? "" : value)
+                    : generic(name, value);
+                case "fingerprint" -> hash != null ? new SdpAttribute.Fingerprint(type, hash) : generic(name, value);
+                case "candidate" -> foundation != null
+                    ? new SdpAttribute.Generic(name, foundation + " " + component + " " + transport + " " + priority
+                        + " " + ip + " " + port + " typ " + type + (extensions != null ? " " + extensions : ""))
+                    : generic(name, value);
+                default -> generic(name, value);
+            };
+        }
+
+        /**
+         * Re-parses {@code name[:value]} so attributes written in the name/value shape come back as
+         * the same typed records {@link SdpParser} would produce.
+         */
+        private static SdpAttribute generic(String name, String value) {
+            return SdpParser.parseAttribute(value == null || value.isEmpty() ? name : name + ":" + value);
+        }
+
+        // -- tokens -----------------------------------------------------------
+
+        private void beginObject() {
+            expect('{');
+            pendingFirst = true;
+        }
+
+        private void beginArray() {
+            expect('[');
+            pendingFirst = true;
+        }
+
+        private boolean pendingFirst;
+
+        private boolean hasNextKey() {
+            return hasNext('}');
+        }
+
+        private boolean hasNextElement() {
+            return hasNext(']');
+        }
+
+        private boolean hasNext(char close) {
+            skipWhitespace();
+            if (pos < in.length() && in.charAt(pos) == close) {
+                pos++;
+                pendingFirst = false;
+                return false;
+            }
+            if (!pendingFirst) expect(',');
+            pendingFirst = false;
+            return true;
+        }
+
+        private String nextKey() {
+            String key = quoted();
+            expect(':');
+            return key;
+        }
+
+        private String nextString() {
+            skipWhitespace();
+            if (literal("null")) return null;
+            return quoted();
+        }
+
+        private String quoted() {
+            expect('"');
+            int start = pos;
+            // Fast path: no escapes, the value is a plain subsequence.
+            while (pos < in.length()) {
+                char c = in.charAt(pos);
+                if (c == '"') {
+                    return in.subSequence(start, pos++).toString();
+                }
+                if (c == '\\') break;
+                pos++;
+            }
+            StringBuilder sb = new StringBuilder(pos - start + 16).append(in, start, pos);
+            while (pos < in.length()) {
+                char c = in.charAt(pos++);
+                if (c == '"') return sb.toString();
+                if (c != '\\') {
+                    sb.append(c);
+                    continue;
+                }
+                if (pos >= in.length()) break;
+                char e = in.charAt(pos++);
+                switch (e) {
+                    case '"', '\\', '/' -> sb.append(e);
+                    case 'n' -> sb.append('\n');
+                    case 'r' -> sb.append('\r');
+                    case 't' -> sb.append('\t');
+                    case 'b' -> sb.append('\b');
+                    case 'f' -> sb.append('\f');
+                    case 'u' -> {
+                        if (pos + 4 > in.length()) throw error("Truncated \\u escape");
+                        try {
+                            sb.append((char) Integer.parseInt(in.subSequence(pos, pos + 4).toString(), 16));
+                        } catch (NumberFormatException ex) {
+                            throw error("Invalid \\u escape");
+                        }
+                        pos += 4;
+                    }
+                    default -> throw error("Invalid escape");
+                }
+            }
+            throw error("Unterminated string");
+        }
+
+        private int nextInt() {
+            int start = pos;
+            long value = nextLong();
+            if (value != (int) value) {
+                pos = start;
+                throw error("Integer out of range");
+            }
+            return (int) value;
+        }
+
+        private long nextLong() {
+            skipWhitespace();
+            int start = pos;
+            if (pos < in.length() && in.charAt(pos) == '-') pos++;
+            while (pos < in.length() && Character.isDigit(in.charAt(pos))) pos++;
+            try {
+                return Long.parseLong(in, start, pos, 10);
+            } catch (NumberFormatException e) {
+                throw error("Expected an integer");
+            }
+        }
+
+        private void skipValue() {
+            skipWhitespace();
+            if (pos >= in.length()) throw error("Unexpected end of input");
+            char c = in.charAt(pos);
+            switch (c) {
+                case '"' -> nextString();
+                case '{' -> {
+                    beginObject();
+                    while (hasNextKey()) {
+                        nextKey();
+                        skipValue();
+                    }
+                }
+                case '[' -> {
+                    beginArray();
+                    while (hasNextElement()) skipValue();
+                }
+                default -> {
+                    if (!literal("true") && !literal("false") && !literal("null") && !number()) {
+                        throw error("Unexpected value");
+                    }
+                }
+            }
+        }
+
+        private boolean literal(String word) {
+            if (in.length() - pos < word.length() || !word.contentEquals(in.subSequence(pos, pos + word.length()))) {
+                return false;
+            }
+            pos += word.length();
+            return true;
+        }
+
+        /**
+         * Skips a JSON number: -?(0|[1-9][0-9]*)(.[0-9]+)?([eE][+-]?[0-9]+)?
+         */
+        private boolean number() {
+            int start = pos;
+            if (pos < in.length() && in.charAt(pos) == '-') pos++;
+            if (pos < in.length() && in.charAt(pos) == '0') {
+                pos++;
+            } else if (digits() == 0) {
+                pos = start;
+                return false;
+            }
+            if (pos < in.length() && in.charAt(pos) == '.') {
+                pos++;
+                if (digits() == 0) throw error("Invalid number");
+            }
+            if (pos < in.length() && (in.charAt(pos) | 0x20) == 'e') {
+                pos++;
+                if (pos < in.length() && (in.charAt(pos) == '+' || in.charAt(pos) == '-')) pos++;
+                if (digits() == 0) throw error("Invalid number");
+            }
+            return true;
+        }
+
+        private int digits() {
+            int start = pos;
+            while (pos < in.length() && in.charAt(pos) >= '0' && in.charAt(pos) <= '9') pos++;
+            return pos - start;
+        }
+
+        private void expect(char c) {
+            skipWhitespace();
+            if (pos >= in.length() || in.charAt(pos) != c) throw error("Expected '" + c + "'");
+            pos++;
+        }
+
+        private void skipWhitespace() {
+            while (pos < in.length()) {
+                char c = in.charAt(pos);
+                if (c != ' ' && c != '\n' && c != '\r' && c != '\t') break;
+                pos++;
+            }
+        }
+
+        private IllegalArgumentException error(String message) {
+            return new IllegalArgumentException(message + " at offset " + pos + " of SDP JSON");
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package io.github.kinsleykajiva;
+
+import java.util.Arrays;
+
+/**
+ * Line and token boundaries of an SDP document, as found by an {@link SdpScanner}.
+ * <p>
+ * Line {@code i} spans {@code [lineStart(i), lineEnd(i))}, where the end is the position of its
+ * {@code '\n'} (or the end of input). Delimiters are the positions of every {@code ' '},
+ * {@code '\t'}, {@code ':'} and {@code '/'}; those of line {@code i} are
+ * {@code delimiter(delimiterFrom(i)) .. delimiter(delimiterTo(i) - 1)}.
+ */
+final class SdpLineIndex {
+    private int[] lineEnds;
+    private int[] lineDelimiterEnds;
+    private int lineCount;
+
+    private int[] delimiters;
+    private int delimiterCount;
+
+    SdpLineIndex(int length) {
+        lineEnds = new int[Math.max(8, length >>> 5)];
+        lineDelimiterEnds = new int[lineEnds.length];
+        delimiters = new int[Math.max(16, length >>> 3)];
+    }
+
+    /**
+     * Forgets every recorded position, keeping the arrays for reuse.
+     */
+    void clear() {
+        lineCount = 0;
+        delimiterCount = 0;
+    }
+
+    void addDelimiter(int position) {
+        if (delimiterCount == delimiters.length) {
+            delimiters = Arrays.copyOf(delimiters, delimiterCount * 2);
+        }
+        delimiters[delimiterCount++] = position;
+    }
+
+    void addLineEnd(int position) {
+        if (lineCount == lineEnds.length) {
+            lineEnds = Arrays.copyOf(lineEnds, lineCount * 2);
+            lineDelimiterEnds = Arrays.copyOf(lineDelimiterEnds, lineCount * 2);
+        }
+        lineEnds[lineCount] = position;
+        lineDelimiterEnds[lineCount++] = delimiterCount;
+    }
+
+    int lineCount() { return lineCount; }
+    int lineStart(int line) { return line == 0 ? 0 : lineEnds[line - 1] + 1; }
+    int lineEnd(int line) { return lineEnds[line]; }
+    int delimiterFrom(int line) { return line == 0 ? 0 : lineDelimiterEnds[line - 1]; }
+    int delimiterTo(int line) { return lineDelimiterEnds[line]; }
+    int delimiter(int d) { return delimiters[d]; }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof SdpLineIndex other
+            && Arrays.equals(lineEnds, 0, lineCount, other.lineEnds, 0, other.lineCount)
+            && Arrays.equals(lineDelimiterEnds, 0, lineCount, other.lineDelimiterEnds, 0, other.lineCount)
+            && Arrays.equals(delimiters, 0, delimiterCount, other.delimiters, 0, other.delimiterCount);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * lineCount + delimiterCount;
+    }
+}
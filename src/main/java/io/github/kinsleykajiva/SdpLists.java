@@ -0,0 +1,77 @@
+package io.github.kinsleykajiva;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+
+/**
+ * Copy-on-write helpers for the immutable lists held by {@link SdpSession} and {@link SdpMedia}.
+ * Every operation returns the original list instance when nothing changed, so untouched
+ * branches of a session stay shared between the old and the new value.
+ */
+final class SdpLists {
+
+    private SdpLists() {}
+
+    static <E> List<E> set(List<E> list, int index, E element) {
+        if (list.get(index) == element) return list;
+        Object[] copy = list.toArray();
+        copy[index] = element;
+        return wrap(copy);
+    }
+
+    static <E> List<E> update(List<E> list, int index, UnaryOperator<E> fn) {
+        return set(list, index, fn.apply(list.get(index)));
+    }
+
+    static <E> List<E> add(List<E> list, E element) {
+        Object[] copy = Arrays.copyOf(list.toArray(), list.size() + 1);
+        copy[list.size()] = element;
+        return wrap(copy);
+    }
+
+    static <E> List<E> remove(List<E> list, int index) {
+        Object[] src = list.toArray();
+        Object[] copy = new Object[src.length - 1];
+        System.arraycopy(src, 0, copy, 0, index);
+        System.arraycopy(src, index + 1, copy, index, src.length - index - 1);
+        return wrap(copy);
+    }
+
+    static <E> List<E> removeIf(List<E> list, Predicate<? super E> match) {
+        Object[] copy = null;
+        int n = 0;
+        for (int i = 0; i < list.size(); i++) {
+            E e = list.get(i);
+            if (match.test(e)) {
+                if (copy == null) {
+                    copy = new Object[list.size() - 1];
+                    for (int j = 0; j < i; j++) copy[j] = list.get(j);
+                    n = i;
+                }
+            } else if (copy != null) {
+                copy[n++] = e;
+            }
+        }
+        return copy == null ? list : wrap(Arrays.copyOf(copy, n));
+    }
+
+    static <E> List<E> replaceIf(List<E> list, Predicate<? super E> match, UnaryOperator<E> fn) {
+        Object[] copy = null;
+        for (int i = 0; i < list.size(); i++) {
+            E e = list.get(i);
+            if (!match.test(e)) continue;
+            E replacement = fn.apply(e);
+            if (replacement == e) continue;
+            if (copy == null) copy = list.toArray();
+            copy[i] = replacement;
+        }
+        return copy == null ? list : wrap(copy);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <E> List<E> wrap(Object[] elements) {
+        return (List<E>) List.of(elements);
+    }
+}
@@ -1,28 +1,177 @@
 package io.github.kinsleykajiva;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
 
 /**
  * RFC 4566 Media Description (m=)
  * m=<media> <port>/<number of ports> <proto> <fmt> ...
+ * <p>
+ * Immutable; the {@code withX} methods share every unchanged component with this instance.
+ * Lists are copied with {@link List#copyOf}, so {@code null} lists or elements are rejected.
+ * The serialized m= block is computed once and cached, so a section that survives an edit of
+ * its session is never re-serialized. The same goes for its {@link SourceTopology}.
  */
-public record SdpMedia(
-    String type,
-    int port,
-    int portCount,
-    String protocol,
-    List<String> formats,
-    Optional<SdpConnection> connection,
-    List<SdpBandwidth> bandwidths,
-    List<SdpAttribute> attributes
-) {
-    @Override
-    public String toString() {
-        StringBuilder sb = new StringBuilder();
-        sb.append(String.format("m=%s %d%s %s %s\r\n", 
-            type, port, (portCount > 1 ? "/" + portCount : ""), protocol, String.join(" ", formats)));
-        
+public final class SdpMedia {
+    private final String type;
+    private final int port;
+    private final int portCount;
+    private final String protocol;
+    private final List<String> formats;
+    private final Optional<SdpConnection> connection;
+    private final List<SdpBandwidth> bandwidths;
+    private final List<SdpAttribute> attributes;
+
+    private SdpEncoding encoding;
+    private SourceTopology topology;
+
+    public SdpMedia(
+        String type,
+        int port,
+        int portCount,
+        String protocol,
+        List<String> formats,
+        Optional<SdpConnection> connection,
+        List<SdpBandwidth> bandwidths,
+        List<SdpAttribute> attributes
+    ) {
+        this.type = type;
+        this.port = port;
+        this.portCount = portCount;
+        this.protocol = protocol;
+        this.formats = List.copyOf(formats);
+        this.connection = connection;
+        this.bandwidths = List.copyOf(bandwidths);
+        this.attributes = List.copyOf(attributes);
+    }
+
+    /**
+     * For the parser and for edits that keep the attributes: {@code topology} must describe
+     * {@code attributes}, or be {@code null} to derive it on first use.
+     */
+    SdpMedia(
+        String type,
+        int port,
+        int portCount,
+        String protocol,
+        List<String> formats,
+        Optional<SdpConnection> connection,
+        List<SdpBandwidth> bandwidths,
+        List<SdpAttribute> attributes,
+        SourceTopology topology
+    ) {
+        this(type, port, portCount, protocol, formats, connection, bandwidths, attributes);
+        this.topology = topology;
+    }
+
+    public String type() { return type; }
+    public int port() { return port; }
+    public int portCount() { return portCount; }
+    public String protocol() { return protocol; }
+    public List<String> formats() { return formats; }
+    public Optional<SdpConnection> connection() { return connection; }
+    public List<SdpBandwidth> bandwidths() { return bandwidths; }
+    public List<SdpAttribute> attributes() { return attributes; }
+
+    /**
+     * SSRCs, ssrc-groups, rids and simulcast layers of this section.
+     */
+    public SourceTopology topology() {
+        SourceTopology t = topology;
+        if (t == null) {
+            topology = t = SourceTopology.of(attributes);
+        }
+        return t;
+    }
+
+    public SdpMedia withPort(int port) {
+        if (port == this.port) return this;
+        return new SdpMedia(type, port, portCount, protocol, formats, connection, bandwidths, attributes, topology);
+    }
+
+    public SdpMedia withFormats(List<String> formats) {
+        if (formats.equals(this.formats)) return this;
+        return new SdpMedia(type, port, portCount, protocol, formats, connection, bandwidths, attributes, topology);
+    }
+
+    public SdpMedia withConnection(Optional<SdpConnection> connection) {
+        if (Objects.equals(connection, this.connection)) return this;
+        return new SdpMedia(type, port, portCount, protocol, formats, connection, bandwidths, attributes, topology);
+    }
+
+    public SdpMedia withBandwidths(List<SdpBandwidth> bandwidths) {
+        if (bandwidths.equals(this.bandwidths)) return this;
+        return new SdpMedia(type, port, portCount, protocol, formats, connection, bandwidths, attributes, topology);
+    }
+
+    public SdpMedia withAttributes(List<SdpAttribute> attributes) {
+        if (attributes == this.attributes) return this;
+        return new SdpMedia(type, port, portCount, protocol, formats, connection, bandwidths, attributes);
+    }
+
+    public SdpMedia withAttributeAdded(SdpAttribute attribute) {
+        return withAttributes(SdpLists.add(attributes, attribute));
+    }
+
+    public SdpMedia withAttribute(int index, SdpAttribute attribute) {
+        return withAttributes(SdpLists.set(attributes, index, attribute));
+    }
+
+    /**
+     * Replaces every attribute matching {@code match} with {@code replacement}.
+     * Returns {@code this} when nothing matched.
+     */
+    public SdpMedia withAttributeReplaced(Predicate<? super SdpAttribute> match, SdpAttribute replacement) {
+        return withAttributes(SdpLists.replaceIf(attributes, match, a -> replacement));
+    }
+
+    /**
+     * Applies {@code fn} to every attribute matching {@code match}.
+     */
+    public SdpMedia withAttributesUpdated(Predicate<? super SdpAttribute> match, UnaryOperator<SdpAttribute> fn) {
+        return withAttributes(SdpLists.replaceIf(attributes, match, fn));
+    }
+
+    public SdpMedia withAttributesRemoved(Predicate<? super SdpAttribute> match) {
+        return withAttributes(SdpLists.removeIf(attributes, match));
+    }
+
+    /**
+     * The m= block as UTF-8, read-only and backed by the cached encoding (no copy).
+     */
+    public ByteBuffer toByteBuffer() {
+        return ByteBuffer.wrap(encoding().utf8()).asReadOnlyBuffer();
+    }
+
+    public void writeTo(OutputStream out) throws IOException {
+        out.write(encoding().utf8());
+    }
+
+    SdpEncoding encoding() {
+        SdpEncoding e = encoding;
+        if (e == null) {
+            encoding = e = new SdpEncoding(encode());
+        }
+        return e;
+    }
+
+    private String encode() {
+        StringBuilder sb = new StringBuilder(64 + attributes.size() * 32);
+        sb.append("m=").append(type).append(' ').append(port);
+        if (portCount > 1) sb.append('/').append(portCount);
+        sb.append(' ').append(protocol).append(' ');
+        for (int i = 0; i < formats.size(); i++) {
+            if (i > 0) sb.append(' ');
+            sb.append(formats.get(i));
+        }
+        sb.append("\r\n");
+
         connection.ifPresent(c -> sb.append("c=").append(c).append("\r\n"));
         for (SdpBandwidth b : bandwidths) {
             sb.append("b=").append(b).append("\r\n");
@@ -32,4 +181,31 @@ public record SdpMedia(
         }
         return sb.toString();
     }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        return o instanceof SdpMedia m
+            && port == m.port
+            && portCount == m.portCount
+            && Objects.equals(type, m.type)
+            && Objects.equals(protocol, m.protocol)
+            && formats.equals(m.formats)
+            && Objects.equals(connection, m.connection)
+            && bandwidths.equals(m.bandwidths)
+            && attributes.equals(m.attributes);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(type, port, portCount, protocol, formats, connection, bandwidths, attributes);
+    }
+
+    /**
+     * The serialized m= block, including its c=, b= and a= lines. Cached after the first call.
+     */
+    @Override
+    public String toString() {
+        return encoding().text;
+    }
 }
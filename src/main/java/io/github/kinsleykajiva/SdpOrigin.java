@@ -12,6 +12,10 @@ public record SdpOrigin(
     String addrType,
     String unicastAddress
 ) {
+    public SdpOrigin withSessionVersion(long sessionVersion) {
+        return new SdpOrigin(username, sessionId, sessionVersion, netType, addrType, unicastAddress);
+    }
+
     @Override
     public String toString() {
         return String.format("%s %d %d %s %s %s", 
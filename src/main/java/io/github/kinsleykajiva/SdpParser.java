@@ -1,9 +1,11 @@
 package io.github.kinsleykajiva;
 
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.function.Consumer;
 
 /**
  * SDP Parser following RFC 4566
@@ -11,164 +13,142 @@ import java.util.Optional;
 public class SdpParser {
 
     public static SdpSession parse(String sdp) {
-        String[] lines = sdp.split("\\r?\\n");
-        
-        int version = 0;
-        SdpOrigin origin = null;
-        String sessionName = "";
-        Optional<String> sessionInformation = Optional.empty();
-        Optional<String> uri = Optional.empty();
-        List<String> emails = new ArrayList<>();
-        List<String> phones = new ArrayList<>();
-        Optional<SdpConnection> sessionConnection = Optional.empty();
-        List<SdpBandwidth> sessionBandwidths = new ArrayList<>();
-        long startTime = 0;
-        long stopTime = 0;
-        List<SdpAttribute> sessionAttributes = new ArrayList<>();
-        List<SdpMedia> mediaSections = new ArrayList<>();
-
-        SdpMediaBuilder currentMediaBuilder = null;
-
-        for (String line : lines) {
-            line = line.trim();
-            if (line.isEmpty()) continue;
+        SessionBuilder builder = new SessionBuilder(null);
+        read(sdp, builder);
+        return builder.build();
+    }
 
-            if (line.length() < 3 || line.charAt(1) != '=') {
-                continue; // Invalid line
-            }
+    /**
+     * Pulls only the fields selected by {@code mask} out of {@code sdp}, without building a session.
+     * Lines the mask does not need are dismissed after looking at their first characters, and the scan
+     * stops as soon as every requested field is complete: the o= line and BUNDLE groups at the first
+     * m= line, single-valued attributes at their first occurrence. {@link SdpFieldMask.Field#MIDS}
+     * always needs the whole document. For well-formed input the values match those of
+     * {@link #parse(String)}.
+     */
+    public static SdpExtract extract(CharSequence sdp, SdpFieldMask mask) {
+        return new Extractor(sdp, mask.bits()).run();
+    }
 
-            char type = line.charAt(0);
-            String value = line.substring(2);
+    /**
+     * Streams the fields of {@code sdp} to {@code handler} in document order, without building a session.
+     */
+    static void read(String sdp, Handler handler) {
+        byte[] text = latin1(sdp);
+        SdpLineIndex index = SdpScanner.instance().scan(text, text.length);
 
-            if (type == 'm') {
-                // New media section starts
-                if (currentMediaBuilder != null) {
-                    mediaSections.add(currentMediaBuilder.build());
-                }
-                currentMediaBuilder = parseMediaLine(value);
-                continue;
-            }
-
-            if (currentMediaBuilder != null) {
-                // We are inside a media section
-                switch (type) {
-                    case 'c' -> currentMediaBuilder.connection = Optional.of(parseConnection(value));
-                    case 'b' -> currentMediaBuilder.bandwidths.add(parseBandwidth(value));
-                    case 'a' -> currentMediaBuilder.attributes.add(parseAttribute(value));
-                    default -> {} // Ignore or handle other types if needed
-                }
-            } else {
-                // We are in the session level
-                switch (type) {
-                    case 'v' -> version = Integer.parseInt(value);
-                    case 'o' -> origin = parseOrigin(value);
-                    case 's' -> sessionName = value;
-                    case 'i' -> sessionInformation = Optional.of(value);
-                    case 'u' -> uri = Optional.of(value);
-                    case 'e' -> emails.add(value);
-                    case 'p' -> phones.add(value);
-                    case 'c' -> sessionConnection = Optional.of(parseConnection(value));
-                    case 'b' -> sessionBandwidths.add(parseBandwidth(value));
-                    case 't' -> {
-                        String[] timing = value.split("\\s+");
-                        if (timing.length >= 2) {
-                            startTime = Long.parseLong(timing[0]);
-                            stopTime = Long.parseLong(timing[1]);
-                        }
-                    }
-                    case 'a' -> sessionAttributes.add(parseAttribute(value));
-                    default -> {}
-                }
-            }
+        LineReader reader = new LineReader(handler);
+        for (int i = 0; i < index.lineCount(); i++) {
+            reader.line(sdp, index, i);
         }
+        reader.end();
+    }
 
-        if (currentMediaBuilder != null) {
-            mediaSections.add(currentMediaBuilder.build());
+    /**
+     * One byte per char so scanner positions are char positions; chars above U+00FF can never be
+     * delimiters and become '?'.
+     */
+    private static byte[] latin1(String sdp) {
+        byte[] text = sdp.getBytes(StandardCharsets.ISO_8859_1);
+        if (text.length == sdp.length()) return text;
+        // A surrogate pair encodes to a single '?', which would shift every later position.
+        text = new byte[sdp.length()];
+        for (int i = 0; i < text.length; i++) {
+            char c = sdp.charAt(i);
+            text[i] = c <= 0xFF ? (byte) c : (byte) '?';
         }
-
-        return new SdpSession(version, origin, sessionName, sessionInformation, uri, emails, phones,
-            sessionConnection, sessionBandwidths, startTime, stopTime, sessionAttributes, mediaSections);
+        return text;
     }
 
-    private static SdpOrigin parseOrigin(String value) {
-        String[] parts = value.split("\\s+");
-        if (parts.length < 6) return null;
-        return new SdpOrigin(parts[0], Long.parseLong(parts[1]), Long.parseLong(parts[2]), 
-            parts[3], parts[4], parts[5]);
+    private static SdpOrigin parseOrigin(SdpFields f) {
+        int[] parts = f.split(2, SdpFields.WHITESPACE, 0);
+        if (SdpFields.count(parts) < 6) return null;
+        return new SdpOrigin(f.token(parts, 0), Long.parseLong(f.token(parts, 1)), Long.parseLong(f.token(parts, 2)),
+            f.token(parts, 3), f.token(parts, 4), f.token(parts, 5));
     }
 
-    private static SdpConnection parseConnection(String value) {
-        String[] parts = value.split("\\s+");
-        if (parts.length < 3) return null;
-        String netType = parts[0];
-        String addrType = parts[1];
-        String addrPart = parts[2];
-        
+    private static SdpConnection parseConnection(SdpFields f) {
+        int[] parts = f.split(2, SdpFields.WHITESPACE, 0);
+        if (SdpFields.count(parts) < 3) return null;
+        String netType = f.token(parts, 0);
+        String addrType = f.token(parts, 1);
+        String address = f.token(parts, 2);
+
         Optional<Integer> ttl = Optional.empty();
         Optional<Integer> amount = Optional.empty();
-        String address = addrPart;
 
-        if (addrPart.contains("/")) {
-            String[] addrTokens = addrPart.split("/");
-            address = addrTokens[0];
-            if (addrTokens.length >= 2) ttl = Optional.of(Integer.parseInt(addrTokens[1]));
-            if (addrTokens.length >= 3) amount = Optional.of(Integer.parseInt(addrTokens[2]));
+        if (address.contains("/")) {
+            int[] addrTokens = f.split(parts[4], parts[5], SdpFields.SLASH, 0);
+            address = f.token(addrTokens, 0);
+            if (SdpFields.count(addrTokens) >= 2) ttl = Optional.of(Integer.parseInt(f.token(addrTokens, 1)));
+            if (SdpFields.count(addrTokens) >= 3) amount = Optional.of(Integer.parseInt(f.token(addrTokens, 2)));
         }
 
         return new SdpConnection(netType, addrType, address, ttl, amount);
     }
 
-    private static SdpBandwidth parseBandwidth(String value) {
-        String[] parts = value.split(":", 2);
-        if (parts.length < 2) return null;
-        return new SdpBandwidth(parts[0], Long.parseLong(parts[1]));
+    private static SdpBandwidth parseBandwidth(SdpFields f) {
+        int[] parts = f.split(2, SdpFields.COLON, 2);
+        if (SdpFields.count(parts) < 2) return null;
+        return new SdpBandwidth(f.token(parts, 0), Long.parseLong(f.token(parts, 1)));
     }
 
-    private static SdpAttribute parseAttribute(String value) {
-        String[] parts = value.split(":", 2);
-        String name = parts[0];
-        String val = parts.length > 1 ? parts[1] : "";
+    /**
+     * Parses the value of an a= line, i.e. {@code <attribute>[:<value>]}.
+     */
+    static SdpAttribute parseAttribute(String value) {
+        return parseAttribute(new SdpFields().reset(value), 0);
+    }
+
+    private static SdpAttribute parseAttribute(SdpFields f, int begin) {
+        int[] parts = f.split(begin, SdpFields.COLON, 2);
+        String name = f.token(parts, 0);
+        boolean hasValue = SdpFields.count(parts) > 1;
+        int valStart = hasValue ? parts[2] : f.length();
+        String val = hasValue ? f.token(parts, 1) : "";
 
         try {
             return switch (name.toLowerCase()) {
                 case "rtpmap" -> {
-                    String[] vParts = val.split("\\s+", 2);
-                    if (vParts.length < 2) yield new SdpAttribute.Generic(name, val);
-                    int pt = Integer.parseInt(vParts[0]);
-                    String[] eParts = vParts[1].split("/");
-                    if (eParts.length < 2) yield new SdpAttribute.Generic(name, val);
-                    String encName = eParts[0];
-                    int clock = Integer.parseInt(eParts[1]);
-                    String params = eParts.length > 2 ? eParts[2] : "";
+                    int[] vParts = f.split(valStart, SdpFields.WHITESPACE, 2);
+                    if (SdpFields.count(vParts) < 2) yield new SdpAttribute.Generic(name, val);
+                    int pt = Integer.parseInt(f.token(vParts, 0));
+                    int[] eParts = f.split(vParts[2], vParts[3], SdpFields.SLASH, 0);
+                    if (SdpFields.count(eParts) < 2) yield new SdpAttribute.Generic(name, val);
+                    String encName = f.token(eParts, 0);
+                    int clock = Integer.parseInt(f.token(eParts, 1));
+                    String params = SdpFields.count(eParts) > 2 ? f.token(eParts, 2) : "";
                     yield new SdpAttribute.Rtpmap(pt, encName, clock, params);
                 }
                 case "fmtp" -> {
-                    String[] vParts = val.split("\\s+", 2);
-                    if (vParts.length < 1) yield new SdpAttribute.Generic(name, val);
-                    yield new SdpAttribute.FMTP(Integer.parseInt(vParts[0]), vParts.length > 1 ? vParts[1] : "");
+                    int[] vParts = f.split(valStart, SdpFields.WHITESPACE, 2);
+                    if (SdpFields.count(vParts) < 1) yield new SdpAttribute.Generic(name, val);
+                    yield new SdpAttribute.FMTP(Integer.parseInt(f.token(vParts, 0)),
+                        SdpFields.count(vParts) > 1 ? f.token(vParts, 1) : "");
                 }
                 case "mid" -> new SdpAttribute.Mid(val);
                 case "msid" -> {
-                    String[] vParts = val.split("\\s+");
-                    if (vParts.length < 1) yield new SdpAttribute.Generic(name, val);
-                    yield new SdpAttribute.Msid(vParts[0], vParts.length > 1 ? vParts[1] : "");
+                    int[] vParts = f.split(valStart, SdpFields.WHITESPACE, 0);
+                    if (SdpFields.count(vParts) < 1) yield new SdpAttribute.Generic(name, val);
+                    yield new SdpAttribute.Msid(f.token(vParts, 0), SdpFields.count(vParts) > 1 ? f.token(vParts, 1) : "");
                 }
                 case "ssrc" -> {
-                    String[] vParts = val.split("\\s+", 2);
-                    if (vParts.length < 1) yield new SdpAttribute.Generic(name, val);
-                    long ssrcId = Long.parseLong(vParts[0]);
-                    if (vParts.length > 1) {
-                        String[] aParts = vParts[1].split(":", 2);
-                        yield new SdpAttribute.Ssrc(ssrcId, aParts[0], aParts.length > 1 ? aParts[1] : "");
+                    int[] vParts = f.split(valStart, SdpFields.WHITESPACE, 2);
+                    if (SdpFields.count(vParts) < 1) yield new SdpAttribute.Generic(name, val);
+                    long ssrcId = Long.parseLong(f.token(vParts, 0));
+                    if (SdpFields.count(vParts) > 1) {
+                        int[] aParts = f.split(vParts[2], vParts[3], SdpFields.COLON, 2);
+                        yield new SdpAttribute.Ssrc(ssrcId, f.token(aParts, 0),
+                            SdpFields.count(aParts) > 1 ? f.token(aParts, 1) : "");
                     }
                     yield new SdpAttribute.Ssrc(ssrcId, "", "");
                 }
                 case "ice-ufrag" -> new SdpAttribute.IceUfrag(val);
                 case "ice-pwd" -> new SdpAttribute.IcePwd(val);
                 case "fingerprint" -> {
-                    String[] vParts = val.split("\\s+", 2);
-                    if (vParts.length < 2) yield new SdpAttribute.Generic(name, val);
-                    yield new SdpAttribute.Fingerprint(vParts[0], vParts.length > 1 ? vParts[1] : "");
+                    int[] vParts = f.split(valStart, SdpFields.WHITESPACE, 2);
+                    if (SdpFields.count(vParts) < 2) yield new SdpAttribute.Generic(name, val);
+                    yield new SdpAttribute.Fingerprint(f.token(vParts, 0), f.token(vParts, 1));
                 }
                 case "setup" -> new SdpAttribute.Setup(val);
                 default -> new SdpAttribute.Generic(name, val);
@@ -178,32 +158,419 @@ public class SdpParser {
         }
     }
 
-    private static SdpMediaBuilder parseMediaLine(String value) {
-        String[] parts = value.split("\\s+");
-        if (parts.length < 4) return null;
+    private static boolean parseMediaLine(SdpFields f, Handler handler) {
+        int[] parts = f.split(2, SdpFields.WHITESPACE, 0);
+        if (SdpFields.count(parts) < 4) return false;
 
-        String type = parts[0];
-        String portPart = parts[1];
+        String type = f.token(parts, 0);
+        String portPart = f.token(parts, 1);
         int port = 0;
         int portCount = 1;
         if (portPart.contains("/")) {
-            String[] pTokens = portPart.split("/");
-            port = Integer.parseInt(pTokens[0]);
-            portCount = Integer.parseInt(pTokens[1]);
+            int[] pTokens = f.split(parts[2], parts[3], SdpFields.SLASH, 0);
+            port = Integer.parseInt(f.token(pTokens, 0));
+            portCount = Integer.parseInt(f.token(pTokens, 1));
         } else {
             port = Integer.parseInt(portPart);
         }
 
-        String protocol = parts[2];
-        List<String> formats = new ArrayList<>(Arrays.asList(parts).subList(3, parts.length));
+        String protocol = f.token(parts, 2);
+        List<String> formats = new ArrayList<>(SdpFields.count(parts) - 3);
+        for (int i = 3; i < SdpFields.count(parts); i++) {
+            formats.add(f.token(parts, i));
+        }
+
+        handler.media(type, port, portCount, protocol, formats);
+        return true;
+    }
+
+    /**
+     * Receives the fields of an SDP document in document order. {@code connection}, {@code bandwidth}
+     * and {@code attribute} belong to the media section opened by the last {@code media} call, or to
+     * the session before the first one.
+     */
+    interface Handler {
+        void version(int version);
+        void origin(SdpOrigin origin);
+        void sessionName(String sessionName);
+        void sessionInformation(String sessionInformation);
+        void uri(String uri);
+        void email(String email);
+        void phone(String phone);
+        void timing(long startTime, long stopTime);
+        void connection(SdpConnection connection);
+        void bandwidth(SdpBandwidth bandwidth);
+        void attribute(SdpAttribute attribute);
+        void media(String type, int port, int portCount, String protocol, List<String> formats);
+
+        /**
+         * Closes the current media section; called before the next m= line and at the end of input.
+         */
+        void endMedia();
+    }
+
+    /**
+     * Line-at-a-time state machine shared by {@link #parse(String)}, {@link SdpPushParser} and
+     * {@link SdpJson}: tracks whether it is inside a media section and dispatches each parsed field.
+     */
+    static final class LineReader {
+        private final Handler handler;
+        private final SdpFields fields = new SdpFields();
+        private boolean inMedia;
+
+        LineReader(Handler handler) {
+            this.handler = handler;
+        }
+
+        void line(String line) {
+            line = line.trim();
+            if (line.isEmpty()) return;
+            line(fields.reset(line));
+        }
+
+        /**
+         * Consumes line {@code i} of {@code source}, reusing the delimiters found by the scanner.
+         */
+        void line(String source, SdpLineIndex index, int i) {
+            int start = index.lineStart(i);
+            int end = index.lineEnd(i);
+            while (start < end && source.charAt(start) <= ' ') start++;
+            while (end > start && source.charAt(end - 1) <= ' ') end--;
+            if (start == end) return;
+
+            int from = index.delimiterFrom(i);
+            int to = index.delimiterTo(i);
+            while (from < to && index.delimiter(from) < start) from++;
+            while (to > from && index.delimiter(to - 1) >= end) to--;
+            line(fields.reset(source.substring(start, end), index, from, to, start));
+        }
+
+        void end() {
+            if (inMedia) handler.endMedia();
+            inMedia = false;
+        }
+
+        private void line(SdpFields f) {
+            String line = f.line();
+            if (line.length() < 3 || line.charAt(1) != '=') {
+                return; // Invalid line
+            }
+
+            char type = line.charAt(0);
+
+            if (type == 'm') {
+                // New media section starts
+                end();
+                inMedia = parseMediaLine(f, handler);
+                return;
+            }
+
+            if (inMedia) {
+                // We are inside a media section
+                switch (type) {
+                    case 'c' -> handler.connection(parseConnection(f));
+                    case 'b' -> bandwidth(parseBandwidth(f));
+                    case 'a' -> handler.attribute(parseAttribute(f, 2));
+                    default -> {} // Ignore or handle other types if needed
+                }
+            } else {
+                // We are in the session level
+                switch (type) {
+                    case 'v' -> handler.version(Integer.parseInt(line.substring(2)));
+                    case 'o' -> handler.origin(parseOrigin(f));
+                    case 's' -> handler.sessionName(line.substring(2));
+                    case 'i' -> handler.sessionInformation(line.substring(2));
+                    case 'u' -> handler.uri(line.substring(2));
+                    case 'e' -> handler.email(line.substring(2));
+                    case 'p' -> handler.phone(line.substring(2));
+                    case 'c' -> handler.connection(parseConnection(f));
+                    case 'b' -> bandwidth(parseBandwidth(f));
+                    case 't' -> {
+                        int[] timing = f.split(2, SdpFields.WHITESPACE, 0);
+                        if (SdpFields.count(timing) >= 2) {
+                            handler.timing(Long.parseLong(f.token(timing, 0)), Long.parseLong(f.token(timing, 1)));
+                        }
+                    }
+                    case 'a' -> handler.attribute(parseAttribute(f, 2));
+                    default -> {}
+                }
+            }
+        }
+
+        private void bandwidth(SdpBandwidth bandwidth) {
+            if (bandwidth != null) handler.bandwidth(bandwidth);
+        }
+    }
 
-        SdpMediaBuilder builder = new SdpMediaBuilder();
-        builder.type = type;
-        builder.port = port;
-        builder.portCount = portCount;
-        builder.protocol = protocol;
-        builder.formats = formats;
-        return builder;
+    /**
+     * Single forward pass behind {@link #extract(CharSequence, SdpFieldMask)}. Works on the
+     * {@code CharSequence} directly; only the extracted values are copied out.
+     */
+    private static final class Extractor {
+        private static final int ORIGIN = SdpFieldMask.bit(SdpFieldMask.Field.ORIGIN);
+        private static final int ICE_UFRAG = SdpFieldMask.bit(SdpFieldMask.Field.ICE_UFRAG);
+        private static final int ICE_PWD = SdpFieldMask.bit(SdpFieldMask.Field.ICE_PWD);
+        private static final int FINGERPRINT = SdpFieldMask.bit(SdpFieldMask.Field.FINGERPRINT);
+        private static final int SETUP = SdpFieldMask.bit(SdpFieldMask.Field.SETUP);
+        private static final int MIDS = SdpFieldMask.bit(SdpFieldMask.Field.MIDS);
+        private static final int BUNDLE_GROUPS = SdpFieldMask.bit(SdpFieldMask.Field.BUNDLE_GROUPS);
+
+        private final CharSequence sdp;
+        private final int wanted;
+        private int done;
+        private boolean inMedia;
+
+        private OptionalLong sessionId = OptionalLong.empty();
+        private OptionalLong sessionVersion = OptionalLong.empty();
+        private Optional<String> iceUfrag = Optional.empty();
+        private Optional<String> icePwd = Optional.empty();
+        private Optional<SdpAttribute.Fingerprint> fingerprint = Optional.empty();
+        private Optional<String> setup = Optional.empty();
+        private final List<String> mids = new ArrayList<>();
+        private final List<List<String>> bundleGroups = new ArrayList<>();
+
+        Extractor(CharSequence sdp, int wanted) {
+            this.sdp = sdp;
+            this.wanted = wanted;
+        }
+
+        SdpExtract run() {
+            int length = sdp.length();
+            int pos = 0;
+            while (pos < length && done != wanted) {
+                int next = nextLine(pos, length);
+                int start = pos;
+                while (start < next && sdp.charAt(start) <= ' ') start++;
+                if (next - start >= 3 && sdp.charAt(start + 1) == '=') {
+                    switch (sdp.charAt(start)) {
+                        case 'm' -> {
+                            if (!inMedia) done |= wanted & (ORIGIN | BUNDLE_GROUPS);
+                            inMedia = true;
+                        }
+                        case 'o' -> {
+                            if (!inMedia && pending(ORIGIN)) origin(start + 2, trimEnd(start, next));
+                        }
+                        case 'a' -> attribute(start + 2, trimEnd(start, next));
+                        default -> {}
+                    }
+                }
+                pos = next + 1;
+            }
+            return new SdpExtract(sessionId, sessionVersion, iceUfrag, icePwd, fingerprint, setup, mids, bundleGroups);
+        }
+
+        private void attribute(int from, int end) {
+            int v;
+            switch (sdp.charAt(from) | 0x20) {
+                case 'i' -> {
+                    if (pending(ICE_UFRAG) && (v = valueStart(from, end, "ice-ufrag")) >= 0) {
+                        iceUfrag = Optional.of(text(v, end));
+                        done |= ICE_UFRAG;
+                    } else if (pending(ICE_PWD) && (v = valueStart(from, end, "ice-pwd")) >= 0) {
+                        icePwd = Optional.of(text(v, end));
+                        done |= ICE_PWD;
+                    }
+                }
+                case 'f' -> {
+                    if (pending(FINGERPRINT) && (v = valueStart(from, end, "fingerprint")) >= 0) {
+                        int hashEnd = skip(v, end, false);
+                        int hashStart = skip(hashEnd, end, true);
+                        if (hashStart < end) {
+                            fingerprint = Optional.of(new SdpAttribute.Fingerprint(text(v, hashEnd), text(hashStart, end)));
+                            done |= FINGERPRINT;
+                        }
+                    }
+                }
+                case 's' -> {
+                    if (pending(SETUP) && (v = valueStart(from, end, "setup")) >= 0) {
+                        setup = Optional.of(text(v, end));
+                        done |= SETUP;
+                    }
+                }
+                case 'm' -> {
+                    if (inMedia && pending(MIDS) && (v = valueStart(from, end, "mid")) >= 0) {
+                        mids.add(text(v, end));
+                    }
+                }
+                case 'g' -> {
+                    if (!inMedia && pending(BUNDLE_GROUPS) && (v = valueStart(from, end, "group")) >= 0) {
+                        group(v, end);
+                    }
+                }
+                default -> {}
+            }
+        }
+
+        private void origin(int from, int end) {
+            done |= ORIGIN;
+            int idStart = skip(skip(from, end, false), end, true);
+            int idEnd = skip(idStart, end, false);
+            int versionStart = skip(idEnd, end, true);
+            int versionEnd = skip(versionStart, end, false);
+            if (versionStart == versionEnd) return;
+            try {
+                long id = Long.parseLong(sdp, idStart, idEnd, 10);
+                long version = Long.parseLong(sdp, versionStart, versionEnd, 10);
+                sessionId = OptionalLong.of(id);
+                sessionVersion = OptionalLong.of(version);
+            } catch (NumberFormatException e) {
+                // Left empty, like a malformed o= line in a full parse.
+            }
+        }
+
+        private void group(int from, int end) {
+            int semanticsEnd = skip(from, end, false);
+            if (semanticsEnd - from != 6 || !"BUNDLE".contentEquals(sdp.subSequence(from, semanticsEnd))) return;
+            List<String> group = new ArrayList<>();
+            for (int i = skip(semanticsEnd, end, true); i < end; ) {
+                int tokenEnd = skip(i, end, false);
+                group.add(text(i, tokenEnd));
+                i = skip(tokenEnd, end, true);
+            }
+            bundleGroups.add(List.copyOf(group));
+        }
+
+        private boolean pending(int field) {
+            return (wanted & ~done & field) != 0;
+        }
+
+        /**
+         * Returns where the value starts if the attribute at {@code from} is named {@code name}
+         * (ASCII case-insensitive, as in {@link #parseAttribute(String)}), otherwise -1.
+         */
+        private int valueStart(int from, int end, String name) {
+            int n = name.length();
+            if (end - from < n) return -1;
+            for (int i = 0; i < n; i++) {
+                char c = sdp.charAt(from + i);
+                char expected = name.charAt(i);
+                if (c != expected && !(expected >= 'a' && expected <= 'z' && (c | 0x20) == expected)) return -1;
+            }
+            if (from + n == end) return end;
+            return sdp.charAt(from + n) == ':' ? from + n + 1 : -1;
+        }
+
+        /**
+         * Advances over whitespace ({@code whitespace == true}) or over a token.
+         */
+        private int skip(int from, int end, boolean whitespace) {
+            while (from < end) {
+                char c = sdp.charAt(from);
+                if ((c == ' ' || c == '\t') != whitespace) break;
+                from++;
+            }
+            return from;
+        }
+
+        private int trimEnd(int start, int end) {
+            while (end > start && sdp.charAt(end - 1) <= ' ') end--;
+            return end;
+        }
+
+        private int nextLine(int from, int length) {
+            if (sdp instanceof String s) {
+                int i = s.indexOf('\n', from);
+                return i < 0 ? length : i;
+            }
+            while (from < length && sdp.charAt(from) != '\n') from++;
+            return from;
+        }
+
+        private String text(int from, int to) {
+            return sdp.subSequence(from, to).toString();
+        }
+    }
+
+    /**
+     * Assembles the {@link SdpSession}. A media section is completed, and handed to the optional
+     * listener, as soon as the next m= line (or the end of input) is seen.
+     */
+    static final class SessionBuilder implements Handler {
+        private final Consumer<SdpMedia> mediaListener;
+
+        private int version = 0;
+        private SdpOrigin origin = null;
+        private String sessionName = "";
+        private Optional<String> sessionInformation = Optional.empty();
+        private Optional<String> uri = Optional.empty();
+        private final List<String> emails = new ArrayList<>();
+        private final List<String> phones = new ArrayList<>();
+        private Optional<SdpConnection> sessionConnection = Optional.empty();
+        private final List<SdpBandwidth> sessionBandwidths = new ArrayList<>();
+        private long startTime = 0;
+        private long stopTime = 0;
+        private final List<SdpAttribute> sessionAttributes = new ArrayList<>();
+        private final List<SdpMedia> mediaSections = new ArrayList<>();
+
+        private SdpMediaBuilder currentMediaBuilder = null;
+
+        SessionBuilder(Consumer<SdpMedia> mediaListener) {
+            this.mediaListener = mediaListener;
+        }
+
+        @Override public void version(int version) { this.version = version; }
+        @Override public void origin(SdpOrigin origin) { this.origin = origin; }
+        @Override public void sessionName(String sessionName) { this.sessionName = sessionName; }
+        @Override public void sessionInformation(String sessionInformation) { this.sessionInformation = Optional.of(sessionInformation); }
+        @Override public void uri(String uri) { this.uri = Optional.of(uri); }
+        @Override public void email(String email) { emails.add(email); }
+        @Override public void phone(String phone) { phones.add(phone); }
+
+        @Override
+        public void timing(long startTime, long stopTime) {
+            this.startTime = startTime;
+            this.stopTime = stopTime;
+        }
+
+        @Override
+        public void connection(SdpConnection connection) {
+            if (currentMediaBuilder != null) {
+                currentMediaBuilder.connection = Optional.of(connection);
+            } else {
+                sessionConnection = Optional.of(connection);
+            }
+        }
+
+        @Override
+        public void bandwidth(SdpBandwidth bandwidth) {
+            (currentMediaBuilder != null ? currentMediaBuilder.bandwidths : sessionBandwidths).add(bandwidth);
+        }
+
+        @Override
+        public void attribute(SdpAttribute attribute) {
+            if (currentMediaBuilder != null) {
+                currentMediaBuilder.attributes.add(attribute);
+                currentMediaBuilder.topology.accept(attribute);
+            } else {
+                sessionAttributes.add(attribute);
+            }
+        }
+
+        @Override
+        public void media(String type, int port, int portCount, String protocol, List<String> formats) {
+            SdpMediaBuilder builder = new SdpMediaBuilder();
+            builder.type = type;
+            builder.port = port;
+            builder.portCount = portCount;
+            builder.protocol = protocol;
+            builder.formats = formats;
+            currentMediaBuilder = builder;
+        }
+
+        @Override
+        public void endMedia() {
+            if (currentMediaBuilder == null) return;
+            SdpMedia media = currentMediaBuilder.build();
+            currentMediaBuilder = null;
+            mediaSections.add(media);
+            if (mediaListener != null) mediaListener.accept(media);
+        }
+
+        SdpSession build() {
+            endMedia();
+            return new SdpSession(version, origin, sessionName, sessionInformation, uri, emails, phones,
+                sessionConnection, sessionBandwidths, startTime, stopTime, sessionAttributes, mediaSections);
+        }
     }
 
     private static class SdpMediaBuilder {
@@ -215,9 +582,10 @@ public class SdpParser {
         Optional<SdpConnection> connection = Optional.empty();
         List<SdpBandwidth> bandwidths = new ArrayList<>();
         List<SdpAttribute> attributes = new ArrayList<>();
+        SourceTopology.Builder topology = new SourceTopology.Builder();
 
         SdpMedia build() {
-            return new SdpMedia(type, port, portCount, protocol, formats, connection, bandwidths, attributes);
+            return new SdpMedia(type, port, portCount, protocol, formats, connection, bandwidths, attributes, topology.build());
         }
     }
 }
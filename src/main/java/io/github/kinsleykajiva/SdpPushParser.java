@@ -0,0 +1,194 @@
+package io.github.kinsleykajiva;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+
+/**
+ * Incremental SDP parser for bodies that arrive in arbitrary chunks.
+ * <p>
+ * Chunks may split lines, CRLF pairs or UTF-8 sequences anywhere; the partial state is carried
+ * over to the next {@code feed} call. Nothing blocks, so an instance can be driven from an NIO
+ * selector thread or a virtual thread. Instances are not thread-safe and are meant to be owned
+ * by the connection that reads the body.
+ *
+ * <pre>{@code
+ * // On each OP_READ; remaining starts at the request's Content-Length.
+ * int n = channel.read(buf);
+ * if (n > 0) {
+ *     parser.feed(buf.flip());
+ *     buf.clear();
+ *     remaining -= n;
+ * }
+ * if (n < 0 || remaining == 0) {
+ *     SdpSession session = parser.finish();
+ * }
+ * }</pre>
+ * A read returning 0 only means no data is available yet; the body ends at end of stream or once
+ * Content-Length bytes have been fed.
+ *
+ * The resulting session is the same as {@link SdpParser#parse(String)} on the concatenated body.
+ * <p>
+ * Input from an untrusted peer is bounded: a line longer than {@code maxLineLength} chars, or a body
+ * longer than {@code maxBodyLength} chars, makes {@code feed} throw {@link IllegalArgumentException}
+ * so the owner can drop the connection. The parser cannot be used after that.
+ */
+public final class SdpPushParser {
+
+    public static final int DEFAULT_MAX_LINE_LENGTH = 16 * 1024;
+    public static final int DEFAULT_MAX_BODY_LENGTH = 1024 * 1024;
+
+    private final SdpParser.SessionBuilder builder;
+    private final SdpParser.LineReader reader;
+    private final StringBuilder partialLine = new StringBuilder();
+    private final int maxLineLength;
+    private final int maxBodyLength;
+    private long bodyLength;
+
+    private CharsetDecoder decoder;
+    private CharBuffer decoded;
+    private ByteBuffer carry;
+    private boolean finished;
+    private String failure;
+
+    public SdpPushParser() {
+        this(null);
+    }
+
+    /**
+     * @param mediaListener called with each media section as soon as it is complete, i.e. when the
+     *                      next m= line arrives or on {@link #finish()}; may be {@code null}
+     */
+    public SdpPushParser(Consumer<SdpMedia> mediaListener) {
+        this(mediaListener, DEFAULT_MAX_LINE_LENGTH, DEFAULT_MAX_BODY_LENGTH);
+    }
+
+    /**
+     * @param maxLineLength longest accepted line in chars, excluding the line terminator
+     * @param maxBodyLength longest accepted body in chars
+     */
+    public SdpPushParser(Consumer<SdpMedia> mediaListener, int maxLineLength, int maxBodyLength) {
+        if (maxLineLength <= 0 || maxBodyLength <= 0) {
+            throw new IllegalArgumentException("limits must be positive: line " + maxLineLength + ", body " + maxBodyLength);
+        }
+        this.builder = new SdpParser.SessionBuilder(mediaListener);
+        this.reader = new SdpParser.LineReader(builder);
+        this.maxLineLength = maxLineLength;
+        this.maxBodyLength = maxBodyLength;
+    }
+
+    /**
+     * Feeds a chunk of text. Complete lines are parsed immediately; a trailing partial line is kept
+     * until the next chunk or {@link #finish()}.
+     */
+    public SdpPushParser feed(CharSequence chunk) {
+        ensureOpen();
+        accept(chunk, 0, chunk.length());
+        return this;
+    }
+
+    /**
+     * Feeds a chunk of UTF-8 encoded bytes, consuming the buffer up to its limit. A multi-byte
+     * sequence cut at the end of the chunk is completed by the next one.
+     */
+    public SdpPushParser feed(ByteBuffer chunk) {
+        ensureOpen();
+        if (decoder == null) {
+            decoder = StandardCharsets.UTF_8.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+            decoded = CharBuffer.allocate(1024);
+            carry = ByteBuffer.allocate(8);
+        }
+        // Finish a sequence left over from the previous chunk one byte at a time.
+        while (carry.position() > 0 && chunk.hasRemaining()) {
+            carry.put(chunk.get()).flip();
+            decode(carry, false);
+            carry.compact();
+        }
+        if (carry.position() == 0) {
+            decode(chunk, false);
+            carry.put(chunk);
+        }
+        return this;
+    }
+
+    /**
+     * Parses the last unterminated line, if any, and returns the session.
+     * The parser cannot be fed again afterwards.
+     */
+    public SdpSession finish() {
+        ensureOpen();
+        if (decoder != null) {
+            carry.flip();
+            decode(carry, true);
+            decoder.flush(decoded);
+            drain();
+        }
+        finished = true;
+        if (!partialLine.isEmpty()) {
+            reader.line(partialLine.toString());
+            partialLine.setLength(0);
+        }
+        reader.end();
+        return builder.build();
+    }
+
+    private void decode(ByteBuffer in, boolean endOfInput) {
+        CoderResult result;
+        do {
+            result = decoder.decode(in, decoded, endOfInput);
+            drain();
+        } while (result.isOverflow());
+    }
+
+    private void drain() {
+        decoded.flip();
+        accept(decoded, 0, decoded.remaining());
+        decoded.clear();
+    }
+
+    private void accept(CharSequence chunk, int from, int to) {
+        bodyLength += to - from;
+        if (bodyLength > maxBodyLength) {
+            throw tooLong("SDP body exceeds " + maxBodyLength + " chars");
+        }
+        int start = from;
+        for (int i = from; i < to; i++) {
+            if (chunk.charAt(i) != '\n') continue;
+            checkLineLength(partialLine.length() + i - start);
+            if (partialLine.isEmpty()) {
+                reader.line(chunk.subSequence(start, i).toString());
+            } else {
+                partialLine.append(chunk, start, i);
+                reader.line(partialLine.toString());
+                partialLine.setLength(0);
+            }
+            start = i + 1;
+        }
+        checkLineLength(partialLine.length() + to - start);
+        partialLine.append(chunk, start, to);
+    }
+
+    private void checkLineLength(int length) {
+        // A CR before the LF is part of the terminator, so allow one extra char.
+        if (length > maxLineLength + 1) {
+            throw tooLong("SDP line exceeds " + maxLineLength + " chars");
+        }
+    }
+
+    private IllegalArgumentException tooLong(String message) {
+        failure = message;
+        partialLine.setLength(0);
+        return new IllegalArgumentException(message);
+    }
+
+    private void ensureOpen() {
+        if (failure != null) throw new IllegalStateException("input was rejected: " + failure);
+        if (finished) throw new IllegalStateException("finish() has already been called");
+    }
+}
@@ -0,0 +1,71 @@
+package io.github.kinsleykajiva;
+
+/**
+ * Locates line breaks and field delimiters in raw SDP text.
+ * <p>
+ * {@link #instance()} uses the {@code jdk.incubator.vector} implementation when that module is in
+ * the boot layer ({@code --add-modules jdk.incubator.vector}) and falls back to a scalar loop
+ * otherwise. Set {@code -Dio.github.kinsleykajiva.sdp.scanner=scalar} to force the fallback.
+ */
+interface SdpScanner {
+
+    /**
+     * Scans {@code text[0, length)}, one byte per character (ISO-8859-1; other characters never
+     * collide with the delimiters).
+     */
+    SdpLineIndex scan(byte[] text, int length);
+
+    static SdpScanner instance() {
+        return Holder.INSTANCE;
+    }
+
+    static SdpScanner scalar() {
+        return Scalar.INSTANCE;
+    }
+
+    static boolean isDelimiter(byte b) {
+        return b == ' ' || b == ':' || b == '/' || b == '\t';
+    }
+
+    final class Scalar implements SdpScanner {
+        static final Scalar INSTANCE = new Scalar();
+
+        @Override
+        public SdpLineIndex scan(byte[] text, int length) {
+            SdpLineIndex index = new SdpLineIndex(length);
+            scan(text, 0, length, index);
+            index.addLineEnd(length);
+            return index;
+        }
+
+        static void scan(byte[] text, int from, int to, SdpLineIndex index) {
+            for (int i = from; i < to; i++) {
+                byte b = text[i];
+                if (b == '\n') {
+                    index.addLineEnd(i);
+                } else if (isDelimiter(b)) {
+                    index.addDelimiter(i);
+                }
+            }
+        }
+    }
+
+    final class Holder {
+        static final String PROPERTY = "io.github.kinsleykajiva.sdp.scanner";
+        static final SdpScanner INSTANCE = select();
+
+        private static SdpScanner select() {
+            if ("scalar".equals(System.getProperty(PROPERTY))
+                || ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) {
+                return Scalar.INSTANCE;
+            }
+            try {
+                // Loaded reflectively so this interface never links against the incubator module.
+                return (SdpScanner) Class.forName("io.github.kinsleykajiva.VectorSdpScanner")
+                    .getDeclaredConstructor().newInstance();
+            } catch (ReflectiveOperationException | LinkageError e) {
+                return Scalar.INSTANCE;
+            }
+        }
+    }
+}
@@ -1,29 +1,229 @@
 package io.github.kinsleykajiva;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
 
 /**
  * RFC 4566 Session Description
+ * <p>
+ * Immutable: list components are copied into unmodifiable lists on construction and the
+ * {@code withX} methods return a new session that shares every unchanged component with this one.
+ * The copy is {@link List#copyOf}, so the constructor rejects {@code null} lists and lists holding
+ * {@code null} elements with a {@link NullPointerException}; the same applies to {@link SdpMedia}.
+ * <p>
+ * The serialized form is cached per segment — the session-level lines and each {@link SdpMedia}
+ * block — so re-serializing a derived session only encodes the segments that were edited. The
+ * whole document is never held as bytes: {@link #writeTo(OutputStream)} writes the cached segments
+ * one after another.
  */
-public record SdpSession(
-    int version,
-    SdpOrigin origin,
-    String sessionName,
-    Optional<String> sessionInformation,
-    Optional<String> uri,
-    List<String> emails,
-    List<String> phones,
-    Optional<SdpConnection> connection,
-    List<SdpBandwidth> bandwidths,
-    long startTime,
-    long stopTime,
-    List<SdpAttribute> sessionAttributes,
-    List<SdpMedia> mediaSections
-) {
-    @Override
-    public String toString() {
-        StringBuilder sb = new StringBuilder();
+public final class SdpSession {
+    private final int version;
+    private final SdpOrigin origin;
+    private final String sessionName;
+    private final Optional<String> sessionInformation;
+    private final Optional<String> uri;
+    private final List<String> emails;
+    private final List<String> phones;
+    private final Optional<SdpConnection> connection;
+    private final List<SdpBandwidth> bandwidths;
+    private final long startTime;
+    private final long stopTime;
+    private final List<SdpAttribute> sessionAttributes;
+    private final List<SdpMedia> mediaSections;
+
+    private SdpEncoding header;
+    private String text;
+
+    public SdpSession(
+        int version,
+        SdpOrigin origin,
+        String sessionName,
+        Optional<String> sessionInformation,
+        Optional<String> uri,
+        List<String> emails,
+        List<String> phones,
+        Optional<SdpConnection> connection,
+        List<SdpBandwidth> bandwidths,
+        long startTime,
+        long stopTime,
+        List<SdpAttribute> sessionAttributes,
+        List<SdpMedia> mediaSections
+    ) {
+        this.version = version;
+        this.origin = origin;
+        this.sessionName = sessionName;
+        this.sessionInformation = sessionInformation;
+        this.uri = uri;
+        this.emails = List.copyOf(emails);
+        this.phones = List.copyOf(phones);
+        this.connection = connection;
+        this.bandwidths = List.copyOf(bandwidths);
+        this.startTime = startTime;
+        this.stopTime = stopTime;
+        this.sessionAttributes = List.copyOf(sessionAttributes);
+        this.mediaSections = List.copyOf(mediaSections);
+    }
+
+    /**
+     * Same session-level fields as {@code base} with other media; keeps the cached header.
+     */
+    private SdpSession(SdpSession base, List<SdpMedia> mediaSections) {
+        this.version = base.version;
+        this.origin = base.origin;
+        this.sessionName = base.sessionName;
+        this.sessionInformation = base.sessionInformation;
+        this.uri = base.uri;
+        this.emails = base.emails;
+        this.phones = base.phones;
+        this.connection = base.connection;
+        this.bandwidths = base.bandwidths;
+        this.startTime = base.startTime;
+        this.stopTime = base.stopTime;
+        this.sessionAttributes = base.sessionAttributes;
+        this.mediaSections = List.copyOf(mediaSections);
+        this.header = base.header;
+    }
+
+    public int version() { return version; }
+    public SdpOrigin origin() { return origin; }
+    public String sessionName() { return sessionName; }
+    public Optional<String> sessionInformation() { return sessionInformation; }
+    public Optional<String> uri() { return uri; }
+    public List<String> emails() { return emails; }
+    public List<String> phones() { return phones; }
+    public Optional<SdpConnection> connection() { return connection; }
+    public List<SdpBandwidth> bandwidths() { return bandwidths; }
+    public long startTime() { return startTime; }
+    public long stopTime() { return stopTime; }
+    public List<SdpAttribute> sessionAttributes() { return sessionAttributes; }
+    public List<SdpMedia> mediaSections() { return mediaSections; }
+
+    public SdpSession withOrigin(SdpOrigin origin) {
+        if (Objects.equals(origin, this.origin)) return this;
+        return new SdpSession(version, origin, sessionName, sessionInformation, uri, emails, phones,
+            connection, bandwidths, startTime, stopTime, sessionAttributes, mediaSections);
+    }
+
+    /**
+     * Bumps o=&lt;sess-version&gt;, as required whenever an offer or answer is modified (RFC 3264 §8).
+     *
+     * @throws IllegalStateException if the session has no origin, e.g. because the parsed o= line was
+     *                               missing or malformed
+     */
+    public SdpSession withOriginVersionIncremented() {
+        if (origin == null) throw new IllegalStateException("session has no o= line");
+        return withOrigin(origin.withSessionVersion(origin.sessionVersion() + 1));
+    }
+
+    public SdpSession withSessionName(String sessionName) {
+        if (Objects.equals(sessionName, this.sessionName)) return this;
+        return new SdpSession(version, origin, sessionName, sessionInformation, uri, emails, phones,
+            connection, bandwidths, startTime, stopTime, sessionAttributes, mediaSections);
+    }
+
+    public SdpSession withConnection(Optional<SdpConnection> connection) {
+        if (Objects.equals(connection, this.connection)) return this;
+        return new SdpSession(version, origin, sessionName, sessionInformation, uri, emails, phones,
+            connection, bandwidths, startTime, stopTime, sessionAttributes, mediaSections);
+    }
+
+    public SdpSession withBandwidths(List<SdpBandwidth> bandwidths) {
+        if (bandwidths.equals(this.bandwidths)) return this;
+        return new SdpSession(version, origin, sessionName, sessionInformation, uri, emails, phones,
+            connection, bandwidths, startTime, stopTime, sessionAttributes, mediaSections);
+    }
+
+    public SdpSession withSessionAttributes(List<SdpAttribute> sessionAttributes) {
+        if (sessionAttributes == this.sessionAttributes) return this;
+        return new SdpSession(version, origin, sessionName, sessionInformation, uri, emails, phones,
+            connection, bandwidths, startTime, stopTime, sessionAttributes, mediaSections);
+    }
+
+    public SdpSession withSessionAttributeAdded(SdpAttribute attribute) {
+        return withSessionAttributes(SdpLists.add(sessionAttributes, attribute));
+    }
+
+    /**
+     * Replaces every session-level attribute matching {@code match} with {@code replacement}.
+     */
+    public SdpSession withSessionAttributeReplaced(Predicate<? super SdpAttribute> match, SdpAttribute replacement) {
+        return withSessionAttributes(SdpLists.replaceIf(sessionAttributes, match, a -> replacement));
+    }
+
+    public SdpSession withSessionAttributesRemoved(Predicate<? super SdpAttribute> match) {
+        return withSessionAttributes(SdpLists.removeIf(sessionAttributes, match));
+    }
+
+    public SdpSession withMediaSections(List<SdpMedia> mediaSections) {
+        if (mediaSections == this.mediaSections) return this;
+        return new SdpSession(this, mediaSections);
+    }
+
+    /**
+     * Applies {@code fn} to the media section at {@code index}; the other sections are shared as-is.
+     */
+    public SdpSession withMedia(int index, UnaryOperator<SdpMedia> fn) {
+        return withMediaSections(SdpLists.update(mediaSections, index, fn));
+    }
+
+    /**
+     * Applies {@code fn} to every media section matching {@code match}.
+     */
+    public SdpSession withMedia(Predicate<? super SdpMedia> match, UnaryOperator<SdpMedia> fn) {
+        return withMediaSections(SdpLists.replaceIf(mediaSections, match, fn));
+    }
+
+    public SdpSession withMediaAdded(SdpMedia media) {
+        return withMediaSections(SdpLists.add(mediaSections, media));
+    }
+
+    public SdpSession withMediaRemoved(int index) {
+        return withMediaSections(SdpLists.remove(mediaSections, index));
+    }
+
+    /**
+     * The serialized session as UTF-8 in a new read-only buffer, ready to be written to a channel.
+     * The cached segment bytes are copied into it; nothing is re-encoded.
+     */
+    public ByteBuffer toByteBuffer() {
+        byte[] head = header().utf8();
+        int length = head.length;
+        for (SdpMedia m : mediaSections) {
+            length += m.encoding().utf8().length;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(length).put(head);
+        for (SdpMedia m : mediaSections) {
+            buffer.put(m.encoding().utf8());
+        }
+        return buffer.flip().asReadOnlyBuffer();
+    }
+
+    /**
+     * Writes the cached header and media segments one after another.
+     */
+    public void writeTo(OutputStream out) throws IOException {
+        out.write(header().utf8());
+        for (SdpMedia m : mediaSections) {
+            out.write(m.encoding().utf8());
+        }
+    }
+
+    private SdpEncoding header() {
+        SdpEncoding h = header;
+        if (h == null) {
+            header = h = new SdpEncoding(encodeHeader());
+        }
+        return h;
+    }
+
+    private String encodeHeader() {
+        StringBuilder sb = new StringBuilder(128 + sessionAttributes.size() * 32);
         sb.append("v=").append(version).append("\r\n");
         sb.append("o=").append(origin).append("\r\n");
         sb.append("s=").append(sessionName).append("\r\n");
@@ -37,9 +237,53 @@ public record SdpSession(
         for (SdpAttribute a : sessionAttributes) {
             sb.append(a.toSdpString()).append("\r\n");
         }
-        for (SdpMedia m : mediaSections) {
-            sb.append(m.toString());
-        }
         return sb.toString();
     }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        return o instanceof SdpSession s
+            && version == s.version
+            && startTime == s.startTime
+            && stopTime == s.stopTime
+            && Objects.equals(origin, s.origin)
+            && Objects.equals(sessionName, s.sessionName)
+            && Objects.equals(sessionInformation, s.sessionInformation)
+            && Objects.equals(uri, s.uri)
+            && emails.equals(s.emails)
+            && phones.equals(s.phones)
+            && Objects.equals(connection, s.connection)
+            && bandwidths.equals(s.bandwidths)
+            && sessionAttributes.equals(s.sessionAttributes)
+            && mediaSections.equals(s.mediaSections);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(version, origin, sessionName, sessionInformation, uri, emails, phones,
+            connection, bandwidths, startTime, stopTime, sessionAttributes, mediaSections);
+    }
+
+    /**
+     * The serialized session. Cached after the first call; segments shared with the session this
+     * one was derived from are reused rather than rebuilt.
+     */
+    @Override
+    public String toString() {
+        String t = text;
+        if (t == null) {
+            String head = header().text;
+            int length = head.length();
+            for (SdpMedia m : mediaSections) {
+                length += m.encoding().text.length();
+            }
+            StringBuilder sb = new StringBuilder(length).append(head);
+            for (SdpMedia m : mediaSections) {
+                sb.append(m.encoding().text);
+            }
+            text = t = sb.toString();
+        }
+        return t;
+    }
 }
@@ -0,0 +1,401 @@
+package io.github.kinsleykajiva;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.OptionalLong;
+
+/**
+ * The RTP sources of one media section, as declared by a=ssrc, a=ssrc-group (RFC 5576),
+ * a=rid (RFC 8851) and a=simulcast (RFC 8853).
+ * <p>
+ * Every SSRC named in the section resolves in constant time through {@link #source(long)}, which
+ * gives its cname, msid stream/track, its role in FID/FEC-FR groups and its SIM layer. Sections
+ * parsed by {@link SdpParser} get their topology while the attributes are read; for a section
+ * built in code it is derived on first use of {@link SdpMedia#topology()}.
+ */
+public final class SourceTopology {
+
+    public enum Role {
+        /** Carries the media itself; the first SSRC of an FID or FEC-FR group, or ungrouped. */
+        MEDIA,
+        /** Retransmission stream of {@link Source#primarySsrc()} (a=ssrc-group:FID). */
+        RTX,
+        /** FEC repair stream of {@link Source#primarySsrc()} (a=ssrc-group:FEC-FR or FEC). */
+        FEC
+    }
+
+    /**
+     * @param primarySsrc the media SSRC this one repairs; equal to {@code ssrc} for {@link Role#MEDIA}
+     * @param rtxSsrc     the retransmission SSRC paired with this one through FID, if any
+     * @param layer       position in the a=ssrc-group:SIM line (repair streams inherit the layer of their
+     *                    primary), or -1 when the source is not part of a simulcast group
+     */
+    public record Source(
+        long ssrc,
+        Optional<String> cname,
+        Optional<String> streamId,
+        Optional<String> trackId,
+        Role role,
+        long primarySsrc,
+        OptionalLong rtxSsrc,
+        int layer
+    ) {}
+
+    /**
+     * a=ssrc-group:&lt;semantics&gt; &lt;ssrc&gt; ...
+     */
+    public record SsrcGroup(String semantics, List<Long> ssrcs) {
+        public SsrcGroup {
+            ssrcs = List.copyOf(ssrcs);
+        }
+    }
+
+    /**
+     * a=rid:&lt;id&gt; &lt;send|recv&gt; [&lt;restrictions&gt;]
+     */
+    public record Rid(String id, String direction, String restrictions) {}
+
+    /**
+     * a=simulcast, one entry per simulcast stream in priority order, each listing its alternative rids
+     * as written (a paused rid keeps its {@code ~} prefix).
+     */
+    public record Simulcast(List<List<String>> send, List<List<String>> recv) {
+        public Simulcast {
+            send = List.copyOf(send);
+            recv = List.copyOf(recv);
+        }
+    }
+
+    static final SourceTopology EMPTY =
+        new SourceTopology(List.of(), List.of(), List.of(), Optional.empty(), new SsrcIndex());
+
+    private final List<Source> sources;
+    private final List<SsrcGroup> groups;
+    private final List<Rid> rids;
+    private final Optional<Simulcast> simulcast;
+    private final SsrcIndex index;
+
+    private SourceTopology(List<Source> sources, List<SsrcGroup> groups, List<Rid> rids,
+                           Optional<Simulcast> simulcast, SsrcIndex index) {
+        this.sources = List.copyOf(sources);
+        this.groups = List.copyOf(groups);
+        this.rids = List.copyOf(rids);
+        this.simulcast = simulcast;
+        this.index = index;
+    }
+
+    static SourceTopology of(List<SdpAttribute> attributes) {
+        Builder builder = new Builder();
+        for (SdpAttribute attribute : attributes) builder.accept(attribute);
+        return builder.build();
+    }
+
+    /**
+     * The source with this SSRC, found in constant time.
+     */
+    public Optional<Source> source(long ssrc) {
+        int i = index.get(ssrc);
+        return i < 0 ? Optional.empty() : Optional.of(sources.get(i));
+    }
+
+    public boolean contains(long ssrc) {
+        return index.get(ssrc) >= 0;
+    }
+
+    /**
+     * All sources in order of first mention.
+     */
+    public List<Source> sources() { return sources; }
+    public List<SsrcGroup> groups() { return groups; }
+    public List<Rid> rids() { return rids; }
+    public Optional<Simulcast> simulcast() { return simulcast; }
+
+    /**
+     * The media source of each a=ssrc-group:SIM layer, lowest layer first; empty without SSRC simulcast.
+     */
+    public List<Source> layers() {
+        List<Source> layers = new ArrayList<>();
+        for (Source s : sources) {
+            if (s.layer() >= 0 && s.role() == Role.MEDIA) layers.add(s);
+        }
+        layers.sort((a, b) -> Integer.compare(a.layer(), b.layer()));
+        return List.copyOf(layers);
+    }
+
+    public boolean isEmpty() {
+        return sources.isEmpty() && rids.isEmpty() && simulcast.isEmpty();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        return o instanceof SourceTopology t
+            && sources.equals(t.sources)
+            && groups.equals(t.groups)
+            && rids.equals(t.rids)
+            && simulcast.equals(t.simulcast);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(sources, groups, rids, simulcast);
+    }
+
+    @Override
+    public String toString() {
+        return "SourceTopology[sources=" + sources + ", groups=" + groups + ", rids=" + rids + ", simulcast=" + simulcast + "]";
+    }
+
+    /**
+     * Collects the source-related attributes of one media section in document order. {@link #build()}
+     * hands the lookup table to the result, so a builder is used once.
+     */
+    static final class Builder {
+        private final SsrcIndex index = new SsrcIndex();
+        private final List<Draft> drafts = new ArrayList<>();
+        private final List<SsrcGroup> groups = new ArrayList<>();
+        private final List<Rid> rids = new ArrayList<>();
+        private final List<SdpAttribute.Msid> msids = new ArrayList<>();
+        private Simulcast simulcast;
+
+        void accept(SdpAttribute attribute) {
+            if (attribute instanceof SdpAttribute.Ssrc s) {
+                ssrc(s);
+            } else if (attribute instanceof SdpAttribute.Msid m) {
+                msids.add(m);
+            } else if (attribute instanceof SdpAttribute.Generic g && g.value() != null) {
+                String name = g.name();
+                if ("ssrc-group".equalsIgnoreCase(name)) ssrcGroup(g.value());
+                else if ("rid".equalsIgnoreCase(name)) rid(g.value());
+                else if ("simulcast".equalsIgnoreCase(name)) simulcast(g.value());
+            }
+        }
+
+        private void ssrc(SdpAttribute.Ssrc s) {
+            Draft d = draft(s.ssrc());
+            String value = s.attributeValue();
+            if ("cname".equals(s.attribute())) {
+                if (d.cname == null) d.cname = value;
+            } else if ("msid".equals(s.attribute())) {
+                if (d.streamId == null && value != null) {
+                    int end = value.length();
+                    int start = skipSpaces(value, 0, end);
+                    int streamEnd = skipWord(value, start, end);
+                    if (start == streamEnd) return;
+                    d.streamId = value.substring(start, streamEnd);
+                    int track = skipSpaces(value, streamEnd, end);
+                    d.trackId = track < end ? value.substring(track).trim() : null;
+                }
+            }
+        }
+
+        private void ssrcGroup(String value) {
+            int end = value.length();
+            int start = skipSpaces(value, 0, end);
+            int semanticsEnd = skipWord(value, start, end);
+            List<Long> ssrcs = new ArrayList<>(4);
+            try {
+                for (int i = skipSpaces(value, semanticsEnd, end); i < end; ) {
+                    int j = skipWord(value, i, end);
+                    ssrcs.add(Long.parseLong(value, i, j, 10));
+                    i = skipSpaces(value, j, end);
+                }
+            } catch (NumberFormatException e) {
+                return; // Kept as a plain attribute only
+            }
+            if (ssrcs.isEmpty()) return;
+            for (long ssrc : ssrcs) draft(ssrc);
+            groups.add(new SsrcGroup(value.substring(start, semanticsEnd), ssrcs));
+        }
+
+        private void rid(String value) {
+            String[] parts = words(value, 3);
+            if (parts.length < 2) return;
+            rids.add(new Rid(parts[0], parts[1], parts.length > 2 ? parts[2] : ""));
+        }
+
+        private void simulcast(String value) {
+            List<List<String>> send = List.of();
+            List<List<String>> recv = List.of();
+            String[] parts = words(value, 0);
+            for (int i = 0; i + 1 < parts.length; i += 2) {
+                List<List<String>> streams = streams(parts[i + 1]);
+                if (parts[i].equalsIgnoreCase("send")) send = streams;
+                else if (parts[i].equalsIgnoreCase("recv")) recv = streams;
+            }
+            simulcast = new Simulcast(send, recv);
+        }
+
+        private static List<List<String>> streams(String list) {
+            // Early drafts prefixed the list with "rid=".
+            if (list.startsWith("rid=")) list = list.substring(4);
+            List<List<String>> streams = new ArrayList<>();
+            for (String stream : list.split(";")) {
+                if (!stream.isEmpty()) streams.add(List.of(stream.split(",")));
+            }
+            return streams;
+        }
+
+        /**
+         * Splits on runs of whitespace, like {@code value.trim().split("\\s+", limit)} without a regex.
+         */
+        private static String[] words(String value, int limit) {
+            List<String> words = new ArrayList<>(4);
+            int end = value.length();
+            while (end > 0 && value.charAt(end - 1) <= ' ') end--;
+            for (int i = skipSpaces(value, 0, end); i < end; ) {
+                int j = limit > 0 && words.size() == limit - 1 ? end : skipWord(value, i, end);
+                words.add(value.substring(i, j));
+                i = skipSpaces(value, j, end);
+            }
+            return words.isEmpty() ? new String[] {""} : words.toArray(new String[0]);
+        }
+
+        private static int skipSpaces(String value, int i, int end) {
+            while (i < end && value.charAt(i) <= ' ') i++;
+            return i;
+        }
+
+        private static int skipWord(String value, int i, int end) {
+            while (i < end && value.charAt(i) > ' ') i++;
+            return i;
+        }
+
+        private Draft draft(long ssrc) {
+            int i = index.get(ssrc);
+            if (i >= 0) return drafts.get(i);
+            Draft d = new Draft(ssrc);
+            index.put(ssrc, drafts.size());
+            drafts.add(d);
+            return d;
+        }
+
+        SourceTopology build() {
+            if (drafts.isEmpty() && rids.isEmpty() && simulcast == null) return EMPTY;
+            for (SsrcGroup group : groups) {
+                List<Long> ssrcs = group.ssrcs();
+                Draft primary = drafts.get(index.get(ssrcs.get(0)));
+                switch (group.semantics()) {
+                    case "FID" -> repair(primary, ssrcs, Role.RTX);
+                    case "FEC-FR", "FEC" -> repair(primary, ssrcs, Role.FEC);
+                    case "SIM" -> {
+                        for (int layer = 0; layer < ssrcs.size(); layer++) {
+                            drafts.get(index.get(ssrcs.get(layer))).layer = layer;
+                        }
+                    }
+                    default -> {}
+                }
+            }
+
+            // With a single a=msid, every source of the section belongs to that track.
+            SdpAttribute.Msid sectionMsid = msids.size() == 1 ? msids.get(0) : null;
+            List<Source> sources = new ArrayList<>(drafts.size());
+            for (Draft d : drafts) {
+                Draft primary = d.role == Role.MEDIA ? d : drafts.get(index.get(d.primary));
+                String streamId = d.streamId;
+                String trackId = d.trackId;
+                if (streamId == null && sectionMsid != null) {
+                    streamId = sectionMsid.streamId();
+                    trackId = sectionMsid.trackId();
+                }
+                sources.add(new Source(d.ssrc,
+                    Optional.ofNullable(d.cname),
+                    Optional.ofNullable(streamId),
+                    Optional.ofNullable(trackId).filter(t -> !t.isEmpty()),
+                    d.role,
+                    d.role == Role.MEDIA ? d.ssrc : d.primary,
+                    d.rtx == null ? OptionalLong.empty() : OptionalLong.of(d.rtx),
+                    d.layer >= 0 ? d.layer : primary.layer));
+            }
+            return new SourceTopology(sources, groups, rids, Optional.ofNullable(simulcast), index);
+        }
+
+        private void repair(Draft primary, List<Long> ssrcs, Role role) {
+            for (int i = 1; i < ssrcs.size(); i++) {
+                Draft d = drafts.get(index.get(ssrcs.get(i)));
+                if (d == primary) continue;
+                d.role = role;
+                d.primary = primary.ssrc;
+                if (role == Role.RTX && primary.rtx == null) primary.rtx = d.ssrc;
+            }
+        }
+    }
+
+    private static final class Draft {
+        final long ssrc;
+        String cname;
+        String streamId;
+        String trackId;
+        Role role = Role.MEDIA;
+        long primary;
+        Long rtx;
+        int layer = -1;
+
+        Draft(long ssrc) {
+            this.ssrc = ssrc;
+        }
+    }
+
+    /**
+     * Open-addressing hash table from SSRC to a source index, with linear probing and no boxing.
+     * Kept at most half full, so a miss ends after a probe or two.
+     */
+    private static final class SsrcIndex {
+        private long[] keys;
+        private int[] slots; // source index + 1; 0 marks a free slot
+        private int size;
+
+        SsrcIndex() {
+            this(8);
+        }
+
+        private SsrcIndex(int capacity) {
+            keys = new long[capacity];
+            slots = new int[capacity];
+        }
+
+        int get(long ssrc) {
+            int mask = keys.length - 1;
+            for (int i = hash(ssrc) & mask; ; i = (i + 1) & mask) {
+                int slot = slots[i];
+                if (slot == 0) return -1;
+                if (keys[i] == ssrc) return slot - 1;
+            }
+        }
+
+        void put(long ssrc, int value) {
+            if ((size + 1) * 2 > keys.length) rehash(keys.length * 2);
+            insert(ssrc, value);
+            size++;
+        }
+
+        private void rehash(int capacity) {
+            long[] oldKeys = keys;
+            int[] oldSlots = slots;
+            keys = new long[capacity];
+            slots = new int[capacity];
+            insertAll(oldKeys, oldSlots);
+        }
+
+        private void insertAll(long[] fromKeys, int[] fromSlots) {
+            for (int i = 0; i < fromSlots.length; i++) {
+                if (fromSlots[i] != 0) insert(fromKeys[i], fromSlots[i] - 1);
+            }
+        }
+
+        private void insert(long ssrc, int value) {
+            int mask = keys.length - 1;
+            int i = hash(ssrc) & mask;
+            while (slots[i] != 0) i = (i + 1) & mask;
+            keys[i] = ssrc;
+            slots[i] = value + 1;
+        }
+
+        private static int hash(long ssrc) {
+            long h = ssrc * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32));
+        }
+    }
+}
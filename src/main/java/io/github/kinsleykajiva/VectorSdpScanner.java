@@ -0,0 +1,44 @@
+package io.github.kinsleykajiva;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * {@link SdpScanner} that compares {@link ByteVector#SPECIES_PREFERRED} bytes per step against
+ * all five interesting characters and only visits the positions that matched.
+ * Requires {@code --add-modules jdk.incubator.vector}; obtain it through {@link SdpScanner#instance()}.
+ */
+final class VectorSdpScanner implements SdpScanner {
+    // Hit masks are read through VectorMask.toLong(), which holds at most 64 lanes.
+    private static final VectorSpecies<Byte> SPECIES =
+        ByteVector.SPECIES_PREFERRED.length() <= 64 ? ByteVector.SPECIES_PREFERRED : ByteVector.SPECIES_512;
+
+    @Override
+    public SdpLineIndex scan(byte[] text, int length) {
+        SdpLineIndex index = new SdpLineIndex(length);
+        int bound = SPECIES.loopBound(length);
+        int i = 0;
+        for (; i < bound; i += SPECIES.length()) {
+            ByteVector v = ByteVector.fromArray(SPECIES, text, i);
+            VectorMask<Byte> hits = v.eq((byte) '\n')
+                .or(v.eq((byte) ' '))
+                .or(v.eq((byte) ':'))
+                .or(v.eq((byte) '/'))
+                .or(v.eq((byte) '\t'));
+            long bits = hits.toLong();
+            while (bits != 0) {
+                int p = i + Long.numberOfTrailingZeros(bits);
+                if (text[p] == '\n') {
+                    index.addLineEnd(p);
+                } else {
+                    index.addDelimiter(p);
+                }
+                bits &= bits - 1;
+            }
+        }
+        Scalar.scan(text, i, length, index);
+        index.addLineEnd(length);
+        return index;
+    }
+}
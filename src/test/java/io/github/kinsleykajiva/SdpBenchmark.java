@@ -0,0 +1,101 @@
+package io.github.kinsleykajiva;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.ToIntFunction;
+
+/**
+ * Micro-benchmark harness for the parser hot paths. Not run by Surefire; start it from the IDE or with
+ * <pre>
+ * mvn test-compile
+ * java --add-modules jdk.incubator.vector -cp target/classes:target/test-classes io.github.kinsleykajiva.SdpBenchmark
+ * </pre>
+ * Each case is warmed up, then timed over a fixed wall-clock window and reported in ns/op.
+ */
+public class SdpBenchmark {
+
+    private static final long WARMUP_NANOS = 2_000_000_000L;
+    private static final long MEASURE_NANOS = 3_000_000_000L;
+
+    private static int sink;
+
+    public static void main(String[] args) {
+        List<String> examples = List.copyOf(SdpFixtures.examples().values());
+        String large = SdpFixtures.syntheticSdp(64);
+
+        System.out.println("Scanner: " + SdpScanner.instance().getClass().getSimpleName());
+        System.out.printf(Locale.ROOT, "Inputs:  %d example files, synthetic %d chars%n%n", examples.size(), large.length());
+
+        scannerCases("sdps-examples", examples);
+        scannerCases("synthetic", List.of(large));
+
+        bench("parse         sdps-examples", examples, s -> SdpParser.parse(s).mediaSections().size());
+        bench("parse         synthetic", List.of(large), s -> SdpParser.parse(s).mediaSections().size());
+
+        // Projection: what a router needs from an offer, and the same plus every mid (full scan).
+        SdpFieldMask routing = SdpFieldMask.of(SdpFieldMask.Field.ORIGIN, SdpFieldMask.Field.ICE_UFRAG,
+            SdpFieldMask.Field.ICE_PWD, SdpFieldMask.Field.FINGERPRINT, SdpFieldMask.Field.SETUP,
+            SdpFieldMask.Field.BUNDLE_GROUPS);
+        SdpFieldMask withMids = routing.with(SdpFieldMask.Field.MIDS);
+        bench("extract       sdps-examples routing", examples, s -> SdpParser.extract(s, routing).bundleGroups().size());
+        bench("extract       synthetic routing", List.of(large), s -> SdpParser.extract(s, routing).bundleGroups().size());
+        bench("extract       sdps-examples +mids", examples, s -> SdpParser.extract(s, withMids).mids().size());
+        bench("extract       synthetic +mids", List.of(large), s -> SdpParser.extract(s, withMids).mids().size());
+
+        // Resolving the msid of each SSRC of a section: topology lookup vs. scanning the attributes.
+        List<SdpMedia> video = SdpParser.parse(large).mediaSections().stream().filter(m -> m.type().equals("video")).toList();
+        bench("ssrc lookup   topology", video, m -> {
+            int found = 0;
+            for (SourceTopology.Source s : m.topology().sources()) {
+                found += m.topology().source(s.ssrc()).flatMap(SourceTopology.Source::trackId).isPresent() ? 1 : 0;
+            }
+            return found;
+        });
+        bench("ssrc lookup   attribute scan", video, m -> {
+            int found = 0;
+            for (SourceTopology.Source s : m.topology().sources()) {
+                for (SdpAttribute a : m.attributes()) {
+                    if (a instanceof SdpAttribute.Ssrc ssrc && ssrc.ssrc() == s.ssrc() && ssrc.attribute().equals("msid")) {
+                        found++;
+                        break;
+                    }
+                }
+            }
+            return found;
+        });
+    }
+
+    private static void scannerCases(String label, List<String> inputs) {
+        List<byte[]> bytes = inputs.stream().map(s -> s.getBytes(StandardCharsets.ISO_8859_1)).toList();
+        SdpScanner vector = SdpScanner.instance();
+        bench("scan scalar   " + label, bytes, b -> SdpScanner.scalar().scan(b, b.length).lineCount());
+        if (vector != SdpScanner.scalar()) {
+            bench("scan vector   " + label, bytes, b -> vector.scan(b, b.length).lineCount());
+        }
+    }
+
+    static <T> void bench(String name, List<T> inputs, ToIntFunction<T> op) {
+        run(inputs, op, WARMUP_NANOS);
+        long[] ops = new long[1];
+        long elapsed = run(inputs, op, MEASURE_NANOS, ops);
+        System.out.printf(Locale.ROOT, "%-40s %12.1f ns/op%n", name, (double) elapsed / ops[0]);
+    }
+
+    private static <T> long run(List<T> inputs, ToIntFunction<T> op, long budget) {
+        return run(inputs, op, budget, new long[1]);
+    }
+
+    private static <T> long run(List<T> inputs, ToIntFunction<T> op, long budget, long[] ops) {
+        long start = System.nanoTime();
+        long now;
+        do {
+            for (T input : inputs) {
+                sink += op.applyAsInt(input);
+            }
+            ops[0] += inputs.size();
+            now = System.nanoTime();
+        } while (now - start < budget);
+        return now - start;
+    }
+}
@@ -0,0 +1,105 @@
+package io.github.kinsleykajiva;
+
+import io.github.kinsleykajiva.SdpFieldMask.Field;
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SdpExtractTest {
+
+    @Test
+    public void testExtractMatchesFullParse() {
+        List<String> inputs = new ArrayList<>(SdpFixtures.examples().values());
+        inputs.add(SdpFixtures.syntheticSdp(8));
+
+        for (String sdp : inputs) {
+            SdpSession session = SdpParser.parse(sdp);
+            SdpExtract extract = SdpParser.extract(sdp, SdpFieldMask.all());
+            assertEquals(expected(session), extract, sdp);
+            // A CharSequence that is not a String takes the generic path.
+            assertEquals(extract, SdpParser.extract(new StringBuilder(sdp), SdpFieldMask.all()));
+        }
+    }
+
+    @Test
+    public void testFieldsOutsideTheMaskStayEmpty() {
+        String sdp = SdpFixtures.syntheticSdp(2);
+        SdpExtract extract = SdpParser.extract(sdp, SdpFieldMask.of(Field.ICE_UFRAG, Field.MIDS));
+
+        assertEquals(Optional.of("EsAw"), extract.iceUfrag());
+        assertEquals(List.of("0", "1"), extract.mids());
+        assertTrue(extract.sessionId().isEmpty());
+        assertTrue(extract.icePwd().isEmpty());
+        assertTrue(extract.fingerprint().isEmpty());
+        assertTrue(extract.bundleGroups().isEmpty());
+    }
+
+    @Test
+    public void testScanStopsOnceRequestedFieldsAreFound() {
+        String sdp = SdpFixtures.syntheticSdp(16);
+        int firstSetup = sdp.indexOf("a=setup:");
+        int secondMedia = sdp.indexOf("m=", sdp.indexOf("m=") + 1);
+        SdpFieldMask mask = SdpFieldMask.of(Field.ORIGIN, Field.BUNDLE_GROUPS, Field.ICE_UFRAG,
+            Field.ICE_PWD, Field.FINGERPRINT, Field.SETUP);
+
+        SdpExtract extract = SdpParser.extract(new Bounded(sdp, secondMedia), mask);
+
+        assertTrue(firstSetup < secondMedia);
+        assertEquals(6272385394413385094L, extract.sessionId().getAsLong());
+        assertEquals(2L, extract.sessionVersion().getAsLong());
+        assertEquals(Optional.of("actpass"), extract.setup());
+        assertEquals("sha-256", extract.fingerprint().orElseThrow().hashAlgorithm());
+        assertEquals(16, extract.bundleGroups().get(0).size());
+    }
+
+    private static SdpExtract expected(SdpSession session) {
+        List<SdpAttribute> all = new ArrayList<>(session.sessionAttributes());
+        List<String> mids = new ArrayList<>();
+        for (SdpMedia media : session.mediaSections()) {
+            all.addAll(media.attributes());
+            media.attributes().stream()
+                .filter(a -> a instanceof SdpAttribute.Mid)
+                .forEach(a -> mids.add(((SdpAttribute.Mid) a).id()));
+        }
+        List<List<String>> groups = session.sessionAttributes().stream()
+            .filter(a -> "group".equalsIgnoreCase(a.name()) && a.value().startsWith("BUNDLE"))
+            .map(a -> {
+                List<String> tokens = Arrays.asList(a.value().trim().split("[ \t]+"));
+                return tokens.subList(1, tokens.size());
+            })
+            .toList();
+        SdpOrigin origin = session.origin();
+        return new SdpExtract(
+            origin == null ? OptionalLong.empty() : OptionalLong.of(origin.sessionId()),
+            origin == null ? OptionalLong.empty() : OptionalLong.of(origin.sessionVersion()),
+            first(all, SdpAttribute.IceUfrag.class).map(SdpAttribute.IceUfrag::ufrag),
+            first(all, SdpAttribute.IcePwd.class).map(SdpAttribute.IcePwd::password),
+            first(all, SdpAttribute.Fingerprint.class),
+            first(all, SdpAttribute.Setup.class).map(SdpAttribute.Setup::role),
+            mids, groups);
+    }
+
+    private static <A extends SdpAttribute> Optional<A> first(List<SdpAttribute> attributes, Class<A> type) {
+        return attributes.stream().filter(type::isInstance).map(type::cast).findFirst();
+    }
+
+    /**
+     * Fails the test if the parser reads at or beyond {@code limit}.
+     */
+    private record Bounded(String text, int limit) implements CharSequence {
+        @Override
+        public char charAt(int index) {
+            if (index >= limit) fail("read position " + index + " past " + limit);
+            return text.charAt(index);
+        }
+
+        @Override public int length() { return text.length(); }
+        @Override public CharSequence subSequence(int start, int end) { return text.subSequence(start, end); }
+        @Override public String toString() { return text; }
+    }
+}
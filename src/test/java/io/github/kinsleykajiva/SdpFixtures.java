@@ -0,0 +1,124 @@
+package io.github.kinsleykajiva;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Shared test inputs: the files under {@code sdps-examples} and a generated large offer.
+ */
+final class SdpFixtures {
+
+    private SdpFixtures() {}
+
+    /**
+     * The text of every {@code sdps-examples/*.sdp} file, keyed by file name, in name order.
+     */
+    static Map<String, String> examples() {
+        Map<String, String> examples = new LinkedHashMap<>();
+        try (Stream<Path> paths = Files.list(Paths.get("sdps-examples"))) {
+            for (Path p : paths.filter(f -> f.toString().endsWith(".sdp")).sorted().toList()) {
+                examples.put(p.getFileName().toString(), Files.readString(p));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return examples;
+    }
+
+    static String example(String fileName) {
+        try {
+            return Files.readString(Paths.get("sdps-examples", fileName));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * A bundled WebRTC offer with {@code mediaCount} m-sections, each carrying the usual codec, ICE,
+     * DTLS, RTCP feedback, simulcast and SSRC attributes.
+     */
+    static String syntheticSdp(int mediaCount) {
+        StringBuilder sb = new StringBuilder(mediaCount * 2048);
+        sb.append("v=0\r\n")
+          .append("o=- 6272385394413385094 2 IN IP4 127.0.0.1\r\n")
+          .append("s=-\r\n")
+          .append("t=0 0\r\n")
+          .append("a=group:BUNDLE");
+        for (int m = 0; m < mediaCount; m++) sb.append(' ').append(m);
+        sb.append("\r\na=msid-semantic: WMS stream\r\n");
+        for (int m = 0; m < mediaCount; m++) {
+            boolean video = (m & 1) == 1;
+            long ssrc = 100_000L + m * 10L;
+            sb.append("m=").append(video ? "video" : "audio").append(" 9 UDP/TLS/RTP/SAVPF ")
+              .append(video ? "96 97 98 99" : "111 103 104 9 0 8 106 105 13 110 112 113 126").append("\r\n")
+              .append("c=IN IP4 0.0.0.0\r\n")
+              .append("a=rtcp:9 IN IP4 0.0.0.0\r\n")
+              .append("a=candidate:1467250027 1 udp 2122260223 192.168.0.196 46243 typ host generation 0\r\n")
+              .append("a=candidate:435653019 1 tcp 1845501695 203.0.113.7 9 typ srflx raddr 192.168.0.196 rport 46243 tcptype active generation 0\r\n")
+              .append("a=ice-ufrag:EsAw\r\n")
+              .append("a=ice-pwd:P2uYro0UCOQ4zxjKXaWCBui1\r\n")
+              .append("a=ice-options:trickle\r\n")
+              .append("a=fingerprint:sha-256 D1:2C:BE:AD:C4:F6:64:5C:25:16:11:9C:AF:E7:0F:73:79:36:4E:9C:1E:15:54:39:0C:06:8B:ED:96:86:00:39\r\n")
+              .append("a=setup:actpass\r\n")
+              .append("a=mid:").append(m).append("\r\n")
+              .append("a=extmap:1 urn:ietf:params:rtp-hdrext:ssrc-audio-level\r\n")
+              .append("a=extmap:3 http://www.webrtc.org/experiments/rtp-hdrext/abs-send-time\r\n")
+              .append("a=sendrecv\r\n")
+              .append("a=msid:stream track").append(m).append("\r\n")
+              .append("a=rtcp-mux\r\n");
+            if (video) {
+                sb.append("a=rtcp-rsize\r\n")
+                  .append("a=rtpmap:96 VP8/90000\r\n")
+                  .append("a=rtcp-fb:96 goog-remb\r\n")
+                  .append("a=rtcp-fb:96 transport-cc\r\n")
+                  .append("a=rtcp-fb:96 ccm fir\r\n")
+                  .append("a=rtcp-fb:96 nack\r\n")
+                  .append("a=rtcp-fb:96 nack pli\r\n")
+                  .append("a=rtpmap:97 rtx/90000\r\n")
+                  .append("a=fmtp:97 apt=96\r\n")
+                  .append("a=rtpmap:98 H264/90000\r\n")
+                  .append("a=fmtp:98 level-asymmetry-allowed=1;packetization-mode=1;profile-level-id=42e01f\r\n")
+                  .append("a=rtpmap:99 rtx/90000\r\n")
+                  .append("a=fmtp:99 apt=98\r\n")
+                  .append("a=rid:h send\r\n")
+                  .append("a=rid:m send\r\n")
+                  .append("a=rid:l send\r\n")
+                  .append("a=simulcast:send h;m;l\r\n");
+                for (int layer = 0; layer < 3; layer++) {
+                    long primary = ssrc + layer * 2L;
+                    sb.append("a=ssrc-group:FID ").append(primary).append(' ').append(primary + 1).append("\r\n");
+                }
+                sb.append("a=ssrc-group:SIM ").append(ssrc).append(' ').append(ssrc + 2).append(' ').append(ssrc + 4).append("\r\n");
+                for (int s = 0; s < 6; s++) {
+                    sb.append("a=ssrc:").append(ssrc + s).append(" cname:4TOk42mSjXCkVIa6\r\n")
+                      .append("a=ssrc:").append(ssrc + s).append(" msid:stream track").append(m).append("\r\n");
+                }
+            } else {
+                sb.append("a=rtpmap:111 opus/48000/2\r\n")
+                  .append("a=rtcp-fb:111 transport-cc\r\n")
+                  .append("a=fmtp:111 minptime=10;useinbandfec=1\r\n")
+                  .append("a=rtpmap:103 ISAC/16000\r\n")
+                  .append("a=rtpmap:104 ISAC/32000\r\n")
+                  .append("a=rtpmap:9 G722/8000\r\n")
+                  .append("a=rtpmap:0 PCMU/8000\r\n")
+                  .append("a=rtpmap:8 PCMA/8000\r\n")
+                  .append("a=rtpmap:106 CN/32000\r\n")
+                  .append("a=rtpmap:105 CN/16000\r\n")
+                  .append("a=rtpmap:13 CN/8000\r\n")
+                  .append("a=rtpmap:110 telephone-event/48000\r\n")
+                  .append("a=rtpmap:112 telephone-event/32000\r\n")
+                  .append("a=rtpmap:113 telephone-event/16000\r\n")
+                  .append("a=rtpmap:126 telephone-event/8000\r\n")
+                  .append("a=ssrc:").append(ssrc).append(" cname:4TOk42mSjXCkVIa6\r\n")
+                  .append("a=ssrc:").append(ssrc).append(" msid:stream track").append(m).append("\r\n");
+            }
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,149 @@
+package io.github.kinsleykajiva;
+
+import org.junit.jupiter.api.Test;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SdpJsonTest {
+
+    @Test
+    public void testRoundTripAllExampleSdps() {
+        SdpFixtures.examples().forEach((name, sdp) -> {
+            SdpSession session = SdpParser.parse(sdp);
+            String json = SdpJson.toJson(session);
+            assertEquals(session, SdpJson.fromJson(json), "JSON round trip of " + name);
+            assertEquals(session, SdpJson.fromJson(SdpJson.toJson(sdp)), "Streamed JSON round trip of " + name);
+        });
+    }
+
+    @Test
+    public void testStreamingMatchesSessionConversion() {
+        SdpFixtures.examples().forEach((name, sdp) ->
+            assertEquals(SdpJson.toJson(SdpParser.parse(sdp)), SdpJson.toJson(sdp), name));
+        String sdp = SdpFixtures.syntheticSdp(4);
+        assertEquals(SdpJson.toJson(SdpParser.parse(sdp)), SdpJson.toJson(sdp));
+        String bare = "o=- 1 2 IN IP4 127.0.0.1\r\nm=audio 9 RTP/AVP 0\r\n";
+        assertEquals(SdpJson.toJson(SdpParser.parse(bare)), SdpJson.toJson(bare));
+        assertEquals(SdpJson.toJson(SdpParser.parse("")), SdpJson.toJson(""));
+    }
+
+    @Test
+    public void testTypedAttributeFields() {
+        String json = SdpJson.toJson(String.join("\r\n",
+            "v=0",
+            "o=- 1 2 IN IP4 127.0.0.1",
+            "s=-",
+            "t=0 0",
+            "m=audio 9 UDP/TLS/RTP/SAVPF 111",
+            "a=rtpmap:111 opus/48000/2",
+            "a=fmtp:111 minptime=10;useinbandfec=1",
+            "a=ssrc:1001 cname:x",
+            "a=fingerprint:sha-256 AB:CD",
+            "a=candidate:1 1 udp 2122260223 192.168.0.1 46243 typ host generation 0",
+            "a=rtcp-mux",
+            ""));
+        assertTrue(json.contains("{\"name\":\"rtpmap\",\"payload\":111,\"codec\":\"opus\",\"rate\":48000,\"encoding\":\"2\"}"), json);
+        assertTrue(json.contains("{\"name\":\"fmtp\",\"payload\":111,\"config\":\"minptime=10;useinbandfec=1\"}"), json);
+        assertTrue(json.contains("{\"name\":\"ssrc\",\"id\":1001,\"attribute\":\"cname\",\"value\":\"x\"}"), json);
+        assertTrue(json.contains("{\"name\":\"fingerprint\",\"type\":\"sha-256\",\"hash\":\"AB:CD\"}"), json);
+        assertTrue(json.contains("{\"name\":\"candidate\",\"foundation\":\"1\",\"component\":1,\"transport\":\"udp\","
+            + "\"priority\":2122260223,\"ip\":\"192.168.0.1\",\"port\":46243,\"type\":\"host\",\"extensions\":\"generation 0\"}"), json);
+        assertTrue(json.endsWith("{\"name\":\"rtcp-mux\"}]}]}"), json);
+    }
+
+    @Test
+    public void testStringEscaping() {
+        String sdp = "v=0\r\no=- 1 2 IN IP4 127.0.0.1\r\ns=Say \"hi\" \\ Café 😀\u0001!\r\nt=0 0\r\n";
+        String json = SdpJson.toJson(sdp);
+        assertTrue(json.contains("\"name\":\"Say \\\"hi\\\" \\\\ Café 😀\\u0001!\""), json);
+        assertEquals("Say \"hi\" \\ Café 😀\u0001!", SdpJson.fromJson(json).sessionName());
+    }
+
+    @Test
+    public void testUnknownKeysAreSkipped() {
+        SdpSession session = SdpJson.fromJson("""
+            { "version": 0, "extra": {"a": [1, 2, {"b": null}], "c": true},
+              "name": "-", "timing": {"start": 0, "stop": 0},
+              "media": [ {"type": "audio", "port": 9, "protocol": "RTP/AVP", "formats": ["0"], "mid": "x",
+                          "attributes": [ {"name": "mid", "value": "0"}, {"name": "rtpmap", "payload": 0, "codec": "PCMU", "rate": 8000} ]} ] }
+            """);
+        SdpMedia audio = session.mediaSections().get(0);
+        assertEquals(new SdpAttribute.Mid("0"), audio.attributes().get(0));
+        assertEquals(new SdpAttribute.Rtpmap(0, "PCMU", 8000, ""), audio.attributes().get(1));
+        assertThrows(IllegalArgumentException.class, () -> SdpJson.fromJson("{\"version\":0"));
+    }
+
+    @Test
+    public void testMalformedJsonIsRejected() {
+        for (String json : List.of("{null:1}", "{\"version\":4294967297}", "{\"x\":garbage}", "{\"x\":1.}",
+                "{\"media\":[{\"type\":\"audio\",\"port\":70000000000,\"protocol\":\"RTP/AVP\"}]}")) {
+            assertThrows(IllegalArgumentException.class, () -> SdpJson.fromJson(json), json);
+        }
+        SdpSession session = SdpJson.fromJson(
+            "{\"x\":[true,false,null,-0.5e+3,12],\"version\":0,\"name\":\"-\",\"timing\":{\"start\":0,\"stop\":0}}");
+        assertEquals("-", session.sessionName());
+    }
+
+    @Test
+    public void testMediaKeysInAnyOrder() {
+        SdpSession session = SdpJson.fromJson("""
+            {"media": [ {"attributes": [{"name": "mid", "value": "0"}], "connection": {"netType": "IN", "addrType": "IP4", "address": "0.0.0.0"},
+                         "formats": ["0"], "protocol": "RTP/AVP", "port": 9, "type": "audio"} ],
+             "timing": {"stop": 0, "start": 0}, "name": "-", "version": 0}
+            """);
+        SdpMedia audio = session.mediaSections().get(0);
+        assertEquals("audio", audio.type());
+        assertEquals(9, audio.port());
+        assertEquals("0.0.0.0", audio.connection().orElseThrow().address());
+        assertEquals(List.of(new SdpAttribute.Mid("0")), audio.attributes());
+        assertThrows(IllegalArgumentException.class,
+            () -> SdpJson.fromJson("{\"media\":[{\"port\":9,\"protocol\":\"RTP/AVP\",\"formats\":[\"0\"]}]}"));
+    }
+
+    @Test
+    public void testMalformedMediaLineKeepsJsonWellFormed() {
+        String sdp = "v=0\r\no=- 1 2 IN IP4 127.0.0.1\r\ns=-\r\nt=0 0\r\n"
+            + "m=audio 9 RTP/AVP 0\r\na=mid:0\r\n"
+            + "m=video 9 x\r\na=mid:1\r\na=sendonly\r\n";
+        String json = SdpJson.toJson(sdp);
+
+        // The lines after the malformed m= line are skipped with it.
+        String skipped = sdp.substring(0, sdp.indexOf("m=video"));
+        assertEquals(SdpJson.toJson(SdpParser.parse(skipped)), json);
+        assertEquals(SdpParser.parse(skipped), SdpJson.fromJson(json));
+    }
+
+    @Test
+    public void testEachMediaSectionIsWrittenWhenComplete() throws IOException {
+        String sdp = SdpFixtures.syntheticSdp(16);
+        List<Integer> writes = new ArrayList<>();
+        ByteArrayOutputStream out = new ByteArrayOutputStream() {
+            @Override
+            public void write(byte[] b, int off, int len) {
+                writes.add(len);
+                super.write(b, off, len);
+            }
+        };
+        SdpJson.writeJson(sdp, out);
+
+        assertEquals(SdpJson.toJson(sdp), out.toString(StandardCharsets.UTF_8));
+        assertTrue(writes.size() >= 16, writes.toString());
+        assertTrue(writes.stream().allMatch(n -> n <= 8192), writes.toString());
+    }
+
+    @Test
+    public void testOutOfOrderSdpHasNoRepeatedKeys() {
+        String sdp = "v=0\r\no=- 1 2 IN IP4 127.0.0.1\r\ns=-\r\na=tool:x\r\nt=0 0\r\na=ice-lite\r\n"
+            + "m=audio 9 RTP/AVP 0\r\na=mid:0\r\nb=AS:64\r\n";
+        String json = SdpJson.toJson(sdp);
+
+        assertEquals(SdpJson.toJson(SdpParser.parse(sdp)), json);
+        assertEquals(json.indexOf("\"attributes\""), json.lastIndexOf("\"attributes\"", json.indexOf("\"media\"")));
+        assertEquals(SdpParser.parse(sdp), SdpJson.fromJson(json));
+    }
+}
@@ -0,0 +1,72 @@
+package io.github.kinsleykajiva;
+
+import org.junit.jupiter.api.Test;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SdpPushParserTest {
+
+    @Test
+    public void testChunkedInputMatchesOneShotParse() {
+        SdpFixtures.examples().forEach((name, sdp) -> {
+            SdpSession expected = SdpParser.parse(sdp);
+            byte[] bytes = sdp.getBytes(StandardCharsets.UTF_8);
+
+            for (int size : new int[] {1, 2, 7, 64, 4096}) {
+                SdpPushParser chars = new SdpPushParser();
+                SdpPushParser raw = new SdpPushParser();
+                for (int i = 0; i < sdp.length(); i += size) {
+                    chars.feed(sdp.subSequence(i, Math.min(sdp.length(), i + size)));
+                }
+                for (int i = 0; i < bytes.length; i += size) {
+                    raw.feed(ByteBuffer.wrap(bytes, i, Math.min(size, bytes.length - i)));
+                }
+                assertEquals(expected, chars.finish(), name + " fed as text in chunks of " + size);
+                assertEquals(expected, raw.finish(), name + " fed as bytes in chunks of " + size);
+            }
+        });
+    }
+
+    @Test
+    public void testMultiByteSequenceSplitAcrossChunks() {
+        byte[] bytes = "v=0\r\ns=Café €\r\nt=0 0\r\n".getBytes(StandardCharsets.UTF_8);
+        SdpPushParser parser = new SdpPushParser();
+        for (byte b : bytes) parser.feed(ByteBuffer.wrap(new byte[] {b}));
+        assertEquals("Café €", parser.finish().sessionName());
+    }
+
+    @Test
+    public void testMediaSectionCompletedWhenNextOneStarts() {
+        List<String> completed = new ArrayList<>();
+        SdpPushParser parser = new SdpPushParser(m -> completed.add(m.type()));
+        parser.feed("v=0\r\ns=-\r\nt=0 0\r\nm=audio 9 RTP/AVP 0\r\na=rtpmap:0 PCMU/8000\r\nm=vid");
+        assertEquals(List.of(), completed);
+        parser.feed("eo 9 RTP/AVP 96\r\na=rtpmap:96 VP8/90000");
+        assertEquals(List.of("audio"), completed);
+        SdpSession session = parser.finish();
+        assertEquals(List.of("audio", "video"), completed);
+        assertEquals("a=rtpmap:96 VP8/90000", session.mediaSections().get(1).attributes().get(0).toSdpString());
+        assertThrows(IllegalStateException.class, () -> parser.feed("a=rtcp-mux\r\n"));
+    }
+
+    @Test
+    public void testUnboundedInputIsRejected() {
+        SdpPushParser lines = new SdpPushParser(null, 64, 1024);
+        lines.feed("v=0\r\na=" + "x".repeat(62) + "\r\n");
+        assertThrows(IllegalArgumentException.class, () -> {
+            for (int i = 0; i < 10; i++) lines.feed("a=" + "x".repeat(10));
+        });
+        IllegalStateException reused = assertThrows(IllegalStateException.class, () -> lines.feed("\r\n"));
+        assertTrue(reused.getMessage().contains("exceeds 64 chars"), reused.getMessage());
+        assertThrows(IllegalStateException.class, lines::finish);
+
+        SdpPushParser body = new SdpPushParser(null, 64, 1024);
+        assertThrows(IllegalArgumentException.class, () -> {
+            for (int i = 0; i < 100; i++) body.feed(ByteBuffer.wrap("a=rtcp-mux\r\n".getBytes(StandardCharsets.UTF_8)));
+        });
+    }
+}
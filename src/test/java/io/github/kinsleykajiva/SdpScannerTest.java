@@ -0,0 +1,53 @@
+package io.github.kinsleykajiva;
+
+import org.junit.jupiter.api.Test;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SdpScannerTest {
+
+    @Test
+    public void testSelectedScannerMatchesScalarOnExamples() {
+        SdpFixtures.examples().forEach((name, sdp) -> {
+            byte[] text = sdp.getBytes(StandardCharsets.ISO_8859_1);
+            assertEquals(SdpScanner.scalar().scan(text, text.length), SdpScanner.instance().scan(text, text.length),
+                "Scanner disagreement on " + name);
+        });
+        byte[] large = SdpFixtures.syntheticSdp(16).getBytes(StandardCharsets.ISO_8859_1);
+        assertEquals(SdpScanner.scalar().scan(large, large.length), SdpScanner.instance().scan(large, large.length));
+    }
+
+    @Test
+    public void testSelectedScannerMatchesScalarOnRandomLengths() {
+        Random random = new Random(42);
+        byte[] alphabet = "ab9 :/\t\r\n=".getBytes(StandardCharsets.ISO_8859_1);
+        for (int length = 0; length < 300; length++) {
+            byte[] text = new byte[length];
+            for (int i = 0; i < length; i++) text[i] = alphabet[random.nextInt(alphabet.length)];
+            assertEquals(SdpScanner.scalar().scan(text, length), SdpScanner.instance().scan(text, length),
+                "Scanner disagreement at length " + length);
+        }
+    }
+
+    @Test
+    public void testLineAndDelimiterBoundaries() {
+        byte[] text = "v=0\r\na=mid:0\r\nc=IN IP4 1.2.3.4/127".getBytes(StandardCharsets.ISO_8859_1);
+        SdpLineIndex index = SdpScanner.instance().scan(text, text.length);
+        assertEquals(3, index.lineCount());
+        assertEquals(5, index.lineStart(1));
+        assertEquals(13, index.lineEnd(1));
+        assertEquals(1, index.delimiterTo(1) - index.delimiterFrom(1));
+        assertEquals(10, index.delimiter(index.delimiterFrom(1)));
+        assertEquals(text.length, index.lineEnd(2));
+        assertEquals(3, index.delimiterTo(2) - index.delimiterFrom(2));
+    }
+
+    @Test
+    public void testParseMatchesForNonLatin1Text() {
+        SdpSession session = SdpParser.parse("v=0\r\ns=Café 😀 call\r\nt=0 0\r\na=tool:€/x y\r\n");
+        assertEquals("Café 😀 call", session.sessionName());
+        assertEquals("a=tool:€/x y", session.sessionAttributes().get(0).toSdpString());
+    }
+}
@@ -0,0 +1,94 @@
+package io.github.kinsleykajiva;
+
+import org.junit.jupiter.api.Test;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SdpSessionEditTest {
+
+    private static final String SDP = String.join("\r\n",
+        "v=0",
+        "o=- 4294967296 2 IN IP4 127.0.0.1",
+        "s=-",
+        "t=0 0",
+        "a=group:BUNDLE 0 1",
+        "m=audio 9 UDP/TLS/RTP/SAVPF 111",
+        "a=mid:0",
+        "a=setup:actpass",
+        "a=rtpmap:111 opus/48000/2",
+        "m=video 9 UDP/TLS/RTP/SAVPF 96",
+        "a=mid:1",
+        "a=setup:actpass",
+        "a=rtpmap:96 VP8/90000",
+        "");
+
+    @Test
+    public void testEditSharesUnchangedBranches() {
+        SdpSession session = SdpParser.parse(SDP);
+        SdpSession edited = session
+            .withMedia(1, m -> m.withAttributeReplaced(a -> a instanceof SdpAttribute.Setup, new SdpAttribute.Setup("active")))
+            .withOriginVersionIncremented();
+
+        assertEquals(3, edited.origin().sessionVersion());
+        assertEquals(2, session.origin().sessionVersion());
+        assertSame(session.mediaSections().get(0), edited.mediaSections().get(0));
+        assertSame(session.sessionAttributes(), edited.sessionAttributes());
+        assertNotSame(session.mediaSections().get(1), edited.mediaSections().get(1));
+        assertTrue(edited.toString().contains("a=mid:1\r\na=setup:active\r\n"));
+        assertTrue(session.toString().contains("a=mid:1\r\na=setup:actpass\r\n"));
+    }
+
+    @Test
+    public void testNoOpEditReturnsSameInstance() {
+        SdpSession session = SdpParser.parse(SDP);
+        SdpMedia audio = session.mediaSections().get(0);
+        assertSame(audio, audio.withAttributesRemoved(a -> a.name().equals("ssrc")));
+        assertSame(session, session.withMedia(m -> m.type().equals("application"), m -> m.withPort(0)));
+        assertSame(session, session.withOrigin(session.origin()).withSessionName(session.sessionName()));
+        assertSame(session, session.withConnection(session.connection()).withBandwidths(List.copyOf(session.bandwidths())));
+        assertSame(audio, audio.withFormats(List.copyOf(audio.formats())).withConnection(audio.connection())
+            .withBandwidths(audio.bandwidths()));
+    }
+
+    @Test
+    public void testVersionIncrementWithoutOrigin() {
+        SdpSession session = SdpParser.parse(SDP.replace("o=- 4294967296 2 IN IP4 127.0.0.1\r\n", ""));
+        assertNull(session.origin());
+        assertThrows(IllegalStateException.class, session::withOriginVersionIncremented);
+    }
+
+    @Test
+    public void testParsedListsAreUnmodifiable() {
+        SdpSession session = SdpParser.parse(SDP);
+        assertThrows(UnsupportedOperationException.class, () -> session.mediaSections().clear());
+        assertThrows(UnsupportedOperationException.class,
+            () -> session.mediaSections().get(0).attributes().add(new SdpAttribute.Generic("rtcp-mux", "")));
+    }
+
+    @Test
+    public void testSerializationIsCachedAndReusedByDerivedSessions() throws IOException {
+        SdpSession session = SdpParser.parse(SDP);
+        String text = session.toString();
+        assertSame(text, session.toString());
+
+        SdpSession edited = session.withMedia(1, m -> m.withPort(5000));
+        String audio = session.mediaSections().get(0).toString();
+        assertSame(audio, edited.mediaSections().get(0).toString());
+        assertEquals(text.replace("m=video 9 ", "m=video 5000 "), edited.toString());
+
+        ByteBuffer buffer = edited.toByteBuffer();
+        assertTrue(buffer.isReadOnly());
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        assertArrayEquals(edited.toString().getBytes(StandardCharsets.UTF_8), bytes);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        edited.writeTo(out);
+        assertArrayEquals(bytes, out.toByteArray());
+    }
+}
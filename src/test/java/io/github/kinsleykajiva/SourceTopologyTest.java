@@ -0,0 +1,77 @@
+package io.github.kinsleykajiva;
+
+import io.github.kinsleykajiva.SourceTopology.Role;
+import io.github.kinsleykajiva.SourceTopology.Source;
+import org.junit.jupiter.api.Test;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SourceTopologyTest {
+
+    @Test
+    public void testParsedTopologyMatchesDerivedTopology() {
+        SdpFixtures.examples().forEach((name, sdp) -> {
+            for (SdpMedia media : SdpParser.parse(sdp).mediaSections()) {
+                assertEquals(SourceTopology.of(media.attributes()), media.topology(), name);
+            }
+        });
+    }
+
+    @Test
+    public void testSsrcLookupInExample08() {
+        List<SdpMedia> media = SdpParser.parse(SdpFixtures.example("08.sdp")).mediaSections();
+
+        // A single a=msid applies to every source of the section.
+        Source audio = media.get(0).topology().source(5150).orElseThrow();
+        assertEquals(Optional.of("stream"), audio.streamId());
+        assertEquals(Optional.of("track"), audio.trackId());
+        assertEquals(Role.MEDIA, audio.role());
+        assertEquals(-1, audio.layer());
+
+        // Two a=msid lines and no ssrc msid: the stream cannot be told.
+        Source video = media.get(1).topology().source(1111).orElseThrow();
+        assertEquals(Optional.empty(), video.streamId());
+        assertEquals(Optional.empty(), video.cname());
+        assertFalse(media.get(1).topology().contains(5150));
+        assertTrue(media.get(2).topology().isEmpty());
+    }
+
+    @Test
+    public void testSimulcastRolesAndLayers() {
+        SdpMedia video = SdpParser.parse(SdpFixtures.syntheticSdp(2)).mediaSections().get(1);
+        SourceTopology topology = video.topology();
+
+        assertEquals(6, topology.sources().size());
+        assertEquals(List.of(100_010L, 100_012L, 100_014L), topology.layers().stream().map(Source::ssrc).toList());
+
+        Source mid = topology.source(100_012L).orElseThrow();
+        assertEquals(Role.MEDIA, mid.role());
+        assertEquals(1, mid.layer());
+        assertEquals(OptionalLong.of(100_013L), mid.rtxSsrc());
+        assertEquals(Optional.of("4TOk42mSjXCkVIa6"), mid.cname());
+        assertEquals(Optional.of("track1"), mid.trackId());
+
+        Source rtx = topology.source(100_015L).orElseThrow();
+        assertEquals(Role.RTX, rtx.role());
+        assertEquals(100_014L, rtx.primarySsrc());
+        assertEquals(2, rtx.layer());
+
+        assertEquals(List.of("h", "m", "l"), topology.rids().stream().map(SourceTopology.Rid::id).toList());
+        assertEquals(List.of(List.of("h"), List.of("m"), List.of("l")), topology.simulcast().orElseThrow().send());
+        assertEquals(List.of("FID", "FID", "FID", "SIM"), topology.groups().stream().map(SourceTopology.SsrcGroup::semantics).toList());
+    }
+
+    @Test
+    public void testEditsKeepOrRecomputeTopology() {
+        SdpMedia video = SdpParser.parse(SdpFixtures.syntheticSdp(2)).mediaSections().get(1);
+
+        assertSame(video.topology(), video.withPort(5004).topology());
+
+        SdpMedia added = video.withAttributeAdded(new SdpAttribute.Ssrc(42, "cname", "new"));
+        assertEquals(Optional.of("new"), added.topology().source(42).orElseThrow().cname());
+        assertFalse(video.topology().contains(42));
+    }
+}